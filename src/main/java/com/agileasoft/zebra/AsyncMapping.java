@@ -0,0 +1,105 @@
+package com.agileasoft.zebra;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Map a list with an executor, for mappers that wait on blocking calls.<br>
+ * At most maxConcurrency workers are submitted, each one takes the next index not yet mapped until the list is done and writes
+ * its result directly at this index of one pre-sized array, so the order of the source list is kept. The first failure completes
+ * the future exceptionally and stops the workers.
+ *
+ * @author amgohan
+ */
+final class AsyncMapping {
+
+	private AsyncMapping() {
+	}
+
+	/**
+	 * map every element of the source list asynchronously.
+	 *
+	 * @param sourceList
+	 *            list of objects to map, it is copied before this method returns.
+	 * @param elementMapper
+	 *            the mapping of one element.
+	 * @param executor
+	 *            the executor running the workers.
+	 * @param maxConcurrency
+	 *            maximum number of elements mapped at the same time.
+	 * @return a future of the mapped elements, at the same indexes as in the source list.
+	 */
+	static CompletableFuture<List<Object>> map(final List<?> sourceList,
+			final Function<Object, Object> elementMapper,
+			final Executor executor,
+			final int maxConcurrency) {
+		final Object[] source = sourceList.toArray();
+		final Object[] result = new Object[source.length];
+		final CompletableFuture<List<Object>> future = new CompletableFuture<List<Object>>();
+		if (source.length == 0) {
+			future.complete(Arrays.asList(result));
+			return future;
+		}
+		final AtomicInteger nextIndex = new AtomicInteger();
+		final AtomicInteger remaining = new AtomicInteger(source.length);
+		final Runnable worker = () -> {
+			for (int i = nextIndex.getAndIncrement(); i < source.length && !future.isDone(); i = nextIndex.getAndIncrement()) {
+				try {
+					result[i] = elementMapper.apply(source[i]);
+				} catch (final Throwable throwable) {
+					future.completeExceptionally(throwable);
+					return;
+				}
+				if (remaining.decrementAndGet() == 0) {
+					// the decrement publishes the writes of every worker to the thread completing the future.
+					future.complete(Arrays.asList(result));
+				}
+			}
+		};
+		final int workers = Math.min(maxConcurrency, source.length);
+		try {
+			for (int i = 0; i < workers; i++) {
+				executor.execute(worker);
+			}
+		} catch (final RuntimeException exception) {
+			future.completeExceptionally(exception);
+		}
+		return future;
+	}
+
+	/**
+	 * @return the executor used when no executor is given : one virtual thread per task when the JVM supports them (java 21), else a
+	 *         cached pool of daemon threads.
+	 */
+	static Executor defaultExecutor() {
+		return DefaultExecutorHolder.EXECUTOR;
+	}
+
+	private static final class DefaultExecutorHolder {
+
+		static final Executor EXECUTOR = create();
+
+		private static Executor create() {
+			try {
+				final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return (ExecutorService) factory.invoke(null);
+			} catch (final ReflectiveOperationException exception) {
+				final AtomicInteger threadNumber = new AtomicInteger();
+				final ThreadFactory threadFactory = runnable -> {
+					final Thread thread = new Thread(runnable, "zebra-async-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				};
+				return Executors.newCachedThreadPool(threadFactory);
+			}
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.agileasoft.zebra;
+
+/**
+ * The mapper of a route found through other classes, see {@link MapperFactory#transitiveMapping()}.<br>
+ * Each hop is the registered route between two consecutive classes of the chain, so every hop already gives its own mapper to the
+ * metrics. A null intermediate instance ends the chain with null.
+ *
+ * @author amgohan
+ */
+final class ChainedMapper extends Mapper<Object, Object> {
+
+	private final MappingRoute[] hops;
+
+	/**
+	 * @param hops
+	 *            the routes to call in order, at least two.
+	 */
+	ChainedMapper(final MappingRoute[] hops) {
+		this.hops = hops;
+	}
+
+	@Override
+	public Object mapAToB(final Object source) {
+		Object mapped = source;
+		for (int i = 0; i < this.hops.length && mapped != null; i++) {
+			mapped = this.hops[i].map(mapped);
+		}
+		return mapped;
+	}
+
+	/**
+	 * map the source through every hop but the last one, then into the destination with the last hop.
+	 */
+	@Override
+	public Object mapAToB(final Object source, final Object destination) {
+		Object mapped = source;
+		final int last = this.hops.length - 1;
+		for (int i = 0; i < last && mapped != null; i++) {
+			mapped = this.hops[i].map(mapped);
+		}
+		return mapped == null ? null : this.hops[last].mapInto(mapped, destination);
+	}
+
+	/**
+	 * @return the mapper of the last hop, which creates the destination.
+	 */
+	@Override
+	@SuppressWarnings("rawtypes")
+	Class<? extends Mapper> getMapperClass() {
+		return this.hops[this.hops.length - 1].getMapperClass();
+	}
+
+	@Override
+	boolean updatesInPlace(final boolean reverse) {
+		return !reverse && this.hops[this.hops.length - 1].updatesInPlace();
+	}
+}
@@ -0,0 +1,187 @@
+package com.agileasoft.zebra;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.Vector;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Cache of collection factories : the way to create a collection implementation is resolved once per class, the factory then creates
+ * a new collection for an expected number of elements without any reflection.<br>
+ * The resolution order is :
+ * <ul>
+ * <li>the common interfaces (Collection, List, Set, SortedSet, NavigableSet, Queue, Deque) use their usual implementation.</li>
+ * <li>a HashSet or a subclass with an (int) constructor gets a capacity computed from the size and the default load factor.</li>
+ * <li>an (int) constructor gets the size as initial capacity.</li>
+ * <li>a no-arg constructor ignores the size, like TreeSet or LinkedList.</li>
+ * </ul>
+ * The factories are kept in a static ClassValue for the life of their collection class : the factory of a JDK collection is never
+ * released, and the zebra classes it is generated in stay loaded with it, even after the last MapperProcessor is discarded.
+ *
+ * @author amgohan
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+final class CollectionFactories {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private static final ClassValue<IntFunction<Collection>> FACTORIES = new ClassValue<IntFunction<Collection>>() {
+
+		@Override
+		protected IntFunction<Collection> computeValue(final Class<?> collectionClass) {
+			return resolve(collectionClass);
+		}
+	};
+
+	private CollectionFactories() {
+	}
+
+	/**
+	 * create a new collection.
+	 *
+	 * @param collectionClass
+	 *            the wanted collection implementation or one of the common collection interfaces.
+	 * @param size
+	 *            the number of elements that will be added.
+	 * @return a new empty collection.
+	 */
+	static <C extends Collection<?>> C newCollection(final Class<C> collectionClass, final int size) {
+		return (C) FACTORIES.get(collectionClass).apply(size);
+	}
+
+	/**
+	 * @param size
+	 *            the number of elements that will be added.
+	 * @return the initial capacity of a hash collection with the default load factor which will not be resized.
+	 */
+	static int hashCapacity(final int size) {
+		return size < 3 ? size + 1 : (int) (size / 0.75f + 1.0f);
+	}
+
+	/**
+	 * grow an array based collection once before many elements are added, the other collections are not changed.
+	 *
+	 * @param collection
+	 *            the destination collection.
+	 * @param added
+	 *            the number of elements that will be added.
+	 */
+	static void ensureCapacity(final Collection<?> collection, final int added) {
+		if (collection instanceof ArrayList) {
+			((ArrayList<?>) collection).ensureCapacity(collection.size() + added);
+		} else if (collection instanceof Vector) {
+			((Vector<?>) collection).ensureCapacity(collection.size() + added);
+		}
+	}
+
+	private static IntFunction<Collection> resolve(final Class<?> collectionClass) {
+		if (collectionClass == Collection.class || collectionClass == List.class) {
+			return ArrayList::new;
+		}
+		if (collectionClass == Set.class) {
+			return size -> new LinkedHashSet(hashCapacity(size));
+		}
+		if (collectionClass == SortedSet.class || collectionClass == NavigableSet.class) {
+			return size -> new TreeSet();
+		}
+		if (collectionClass == Queue.class || collectionClass == Deque.class) {
+			return ArrayDeque::new;
+		}
+		if (collectionClass.isInterface() || Modifier.isAbstract(collectionClass.getModifiers())) {
+			throw new IllegalStateException("can't create an instance of the abstract collection " + collectionClass.getName());
+		}
+		try {
+			final IntFunction<Collection> sizedFactory = sizedFactory(collectionClass);
+			if (HashSet.class.isAssignableFrom(collectionClass)) {
+				return size -> sizedFactory.apply(hashCapacity(size));
+			}
+			return sizedFactory;
+		} catch (final NoSuchMethodException | IllegalAccessException exception) {
+			// no public (int) constructor, try the no-arg one.
+		}
+		try {
+			final Supplier<Collection> factory = noArgFactory(collectionClass);
+			return size -> factory.get();
+		} catch (final NoSuchMethodException | IllegalAccessException exception) {
+			throw new IllegalStateException("no public (int) or no-arg constructor in " + collectionClass.getName(), exception);
+		}
+	}
+
+	private static IntFunction<Collection> sizedFactory(final Class<?> collectionClass) throws NoSuchMethodException, IllegalAccessException {
+		final MethodHandle constructor = LOOKUP.findConstructor(collectionClass, MethodType.methodType(void.class, int.class));
+		try {
+			final CallSite callSite = LambdaMetafactory.metafactory(LOOKUP,
+																	"apply",
+																	MethodType.methodType(IntFunction.class),
+																	MethodType.methodType(Object.class, int.class),
+																	constructor,
+																	MethodType.methodType(collectionClass, int.class));
+			return (IntFunction<Collection>) create(callSite);
+		} catch (final LambdaConversionException | RuntimeException linkException) {
+			// the class is not visible from zebra (e.g. loaded by another class loader), call the constructor handle.
+			return size -> {
+				try {
+					return (Collection) constructor.invoke(size);
+				} catch (final RuntimeException | Error invokeException) {
+					throw invokeException;
+				} catch (final Throwable invokeThrowable) {
+					throw new IllegalStateException(invokeThrowable.getMessage(), invokeThrowable);
+				}
+			};
+		}
+	}
+
+	private static Supplier<Collection> noArgFactory(final Class<?> collectionClass) throws NoSuchMethodException, IllegalAccessException {
+		final MethodHandle constructor = LOOKUP.findConstructor(collectionClass, MethodType.methodType(void.class));
+		try {
+			final CallSite callSite = LambdaMetafactory.metafactory(LOOKUP,
+																	"get",
+																	MethodType.methodType(Supplier.class),
+																	MethodType.methodType(Object.class),
+																	constructor,
+																	MethodType.methodType(collectionClass));
+			return (Supplier<Collection>) create(callSite);
+		} catch (final LambdaConversionException | RuntimeException linkException) {
+			return () -> {
+				try {
+					return (Collection) constructor.invoke();
+				} catch (final RuntimeException | Error invokeException) {
+					throw invokeException;
+				} catch (final Throwable invokeThrowable) {
+					throw new IllegalStateException(invokeThrowable.getMessage(), invokeThrowable);
+				}
+			};
+		}
+	}
+
+	/**
+	 * @return the functional instance created by the call site of the LambdaMetafactory, an Error is thrown as is.
+	 */
+	private static Object create(final CallSite callSite) {
+		try {
+			return callSite.getTarget().invoke();
+		} catch (final RuntimeException | Error exception) {
+			throw exception;
+		} catch (final Throwable throwable) {
+			throw new IllegalStateException(throwable.getMessage(), throwable);
+		}
+	}
+}
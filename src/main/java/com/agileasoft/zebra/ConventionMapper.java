@@ -0,0 +1,381 @@
+package com.agileasoft.zebra;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A mapper generated for a pair of classes without registered mapper, used when the auto mapping is enabled by
+ * {@link MapperFactory#autoMapping()}.<br>
+ * The properties are matched by name and type : a getter (getX or isX) or a record component of the source gives its value to the
+ * setter setX or to the record component of the destination with the same name, if the value can be assigned to it. A parameterized
+ * type only matches the same type : a List&lt;RoleDto&gt; is never copied into a List&lt;Role&gt;. The copy plan
+ * is built once per pair of classes, each accessor is called through a lambda generated by the LambdaMetafactory, so a mapping
+ * costs no reflection.<br>
+ * Only the public accessors of classes visible from zebra are used. A destination record is created by its canonical constructor,
+ * a missing component gets its default value.
+ *
+ * @author amgohan
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+final class ConventionMapper extends Mapper<Object, Object> {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	// records exist since java 16, they are read by reflection to run on older versions.
+	private static final Method IS_RECORD = findMethod(Class.class, "isRecord");
+
+	private static final Method GET_RECORD_COMPONENTS = findMethod(Class.class, "getRecordComponents");
+
+	private final Class<?> destinationClass;
+
+	private final Supplier<Object> factory;
+
+	private final Function<Object, Object>[] getters;
+
+	private final BiConsumer<Object, Object>[] setters;
+
+	// true when the setter takes a primitive : a null value is not copied.
+	private final boolean[] primitives;
+
+	private final MethodHandle recordConstructor;
+
+	private final Object[] recordDefaults;
+
+	private ConventionMapper(final Class<?> destinationClass,
+			final Supplier<Object> factory,
+			final List<Function<Object, Object>> getters,
+			final List<BiConsumer<Object, Object>> setters,
+			final boolean[] primitives,
+			final MethodHandle recordConstructor,
+			final Object[] recordDefaults) {
+		this.destinationClass = destinationClass;
+		this.factory = factory;
+		this.getters = getters.toArray(new Function[getters.size()]);
+		this.setters = setters.toArray(new BiConsumer[setters.size()]);
+		this.primitives = primitives;
+		this.recordConstructor = recordConstructor;
+		this.recordDefaults = recordDefaults;
+	}
+
+	/**
+	 * build the copy plan of a pair of classes.
+	 *
+	 * @param sourceClass
+	 *            the class of the source instances.
+	 * @param destinationClass
+	 *            the wanted class.
+	 * @return the mapper or null if the destination can't be created or if no property matches.
+	 */
+	static ConventionMapper of(final Class<?> sourceClass, final Class<?> destinationClass) {
+		if (destinationClass.isInterface() || destinationClass.isArray() || destinationClass.isPrimitive() || Modifier.isAbstract(destinationClass.getModifiers())) {
+			return null;
+		}
+		final Map<String, Method> readers = readers(sourceClass);
+		if (readers.isEmpty()) {
+			return null;
+		}
+		final Object[] components = recordComponents(destinationClass);
+		return components != null ? ofRecord(readers, destinationClass, components) : ofBean(readers, destinationClass);
+	}
+
+	@Override
+	public Object mapAToB(final Object source) {
+		if (this.recordConstructor != null) {
+			final Object[] arguments = this.recordDefaults.clone();
+			for (int i = 0; i < this.getters.length; i++) {
+				if (this.getters[i] != null) {
+					final Object value = this.getters[i].apply(source);
+					if (value != null) {
+						arguments[i] = value;
+					}
+				}
+			}
+			try {
+				return this.recordConstructor.invokeExact(arguments);
+			} catch (final RuntimeException | Error exception) {
+				throw exception;
+			} catch (final Throwable throwable) {
+				throw new IllegalStateException(throwable.getMessage(), throwable);
+			}
+		}
+		return this.copy(source, this.factory.get());
+	}
+
+	@Override
+	public Object mapAToB(final Object source, final Object destination) {
+		if (this.recordConstructor != null) {
+			throw new UnsupportedOperationException("the record " + this.destinationClass.getName() + " can't be updated.");
+		}
+		return this.copy(source, destination);
+	}
+
+	@Override
+	boolean updatesInPlace(final boolean reverse) {
+		// a record is immutable.
+		return !reverse && this.recordConstructor == null;
+	}
+
+	private Object copy(final Object source, final Object destination) {
+		for (int i = 0; i < this.getters.length; i++) {
+			final Object value = this.getters[i].apply(source);
+			if (value != null || !this.primitives[i]) {
+				this.setters[i].accept(destination, value);
+			}
+		}
+		return destination;
+	}
+
+	private static ConventionMapper ofBean(final Map<String, Method> readers, final Class<?> destinationClass) {
+		final Supplier<Object> factory = factory(destinationClass);
+		if (factory == null) {
+			return null;
+		}
+		final List<Function<Object, Object>> getters = new ArrayList<Function<Object, Object>>();
+		final List<BiConsumer<Object, Object>> setters = new ArrayList<BiConsumer<Object, Object>>();
+		final List<Boolean> primitives = new ArrayList<Boolean>();
+		final Set<String> copied = new HashSet<String>();
+		for (final Method method : destinationClass.getMethods()) {
+			final String name = propertyName(method, "set");
+			final Method reader = name == null || method.getParameterTypes().length != 1 ? null : readers.get(name);
+			if (reader == null || copied.contains(name) || !isAssignable(method.getParameterTypes()[0], method.getGenericParameterTypes()[0], reader)) {
+				continue;
+			}
+			try {
+				final Function<Object, Object> getter = getter(reader);
+				setters.add(setter(method));
+				getters.add(getter);
+				primitives.add(method.getParameterTypes()[0].isPrimitive());
+				copied.add(name);
+			} catch (final IllegalAccessException exception) {
+				// the accessor is not visible from zebra, the property is not copied.
+			}
+		}
+		if (getters.isEmpty()) {
+			return null;
+		}
+		final boolean[] primitiveSetters = new boolean[primitives.size()];
+		for (int i = 0; i < primitiveSetters.length; i++) {
+			primitiveSetters[i] = primitives.get(i);
+		}
+		return new ConventionMapper(destinationClass, factory, getters, setters, primitiveSetters, null, null);
+	}
+
+	private static ConventionMapper ofRecord(final Map<String, Method> readers, final Class<?> destinationClass, final Object[] components) {
+		final Class<?>[] types = new Class<?>[components.length];
+		final Object[] defaults = new Object[components.length];
+		final List<Function<Object, Object>> getters = new ArrayList<Function<Object, Object>>();
+		boolean matched = false;
+		for (int i = 0; i < components.length; i++) {
+			final Method accessor = (Method) invoke(components[i], "getAccessor");
+			types[i] = accessor.getReturnType();
+			defaults[i] = types[i].isPrimitive() ? Array.get(Array.newInstance(types[i], 1), 0) : null;
+			final Method reader = readers.get(accessor.getName());
+			Function<Object, Object> getter = null;
+			if (reader != null && isAssignable(types[i], accessor.getGenericReturnType(), reader)) {
+				try {
+					getter = getter(reader);
+					matched = true;
+				} catch (final IllegalAccessException exception) {
+					// the accessor is not visible from zebra, the component gets its default value.
+				}
+			}
+			getters.add(getter);
+		}
+		if (!matched) {
+			return null;
+		}
+		try {
+			final MethodHandle constructor = LOOKUP.findConstructor(destinationClass, MethodType.methodType(void.class, types))
+					.asSpreader(Object[].class, types.length)
+					.asType(MethodType.methodType(Object.class, Object[].class));
+			return new ConventionMapper(destinationClass, null, getters, new ArrayList<BiConsumer<Object, Object>>(), new boolean[0], constructor, defaults);
+		} catch (final NoSuchMethodException | IllegalAccessException exception) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the public getters and record accessors of the class by property name.
+	 */
+	private static Map<String, Method> readers(final Class<?> sourceClass) {
+		final Map<String, Method> readers = new LinkedHashMap<String, Method>();
+		for (final Method method : sourceClass.getMethods()) {
+			if (method.getParameterTypes().length != 0 || method.getReturnType() == void.class || method.getDeclaringClass() == Object.class) {
+				continue;
+			}
+			String name = propertyName(method, "get");
+			if (name == null && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+				name = propertyName(method, "is");
+			}
+			if (name != null && !readers.containsKey(name)) {
+				readers.put(name, method);
+			}
+		}
+		final Object[] components = recordComponents(sourceClass);
+		if (components != null) {
+			for (final Object component : components) {
+				final Method accessor = (Method) invoke(component, "getAccessor");
+				readers.put(accessor.getName(), accessor);
+			}
+		}
+		return readers;
+	}
+
+	private static String propertyName(final Method method, final String prefix) {
+		final String name = method.getName();
+		if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || name.length() <= prefix.length() || !name.startsWith(prefix) || !Character.isUpperCase(name.charAt(prefix.length()))) {
+			return null;
+		}
+		// like the java beans : getURL gives URL and getName gives name.
+		if (name.length() > prefix.length() + 1 && Character.isUpperCase(name.charAt(prefix.length() + 1))) {
+			return name.substring(prefix.length());
+		}
+		return Character.toLowerCase(name.charAt(prefix.length())) + name.substring(prefix.length() + 1);
+	}
+
+	private static boolean isAssignable(final Class<?> destinationType, final Type genericDestinationType, final Method reader) {
+		if (!(genericDestinationType instanceof Class)) {
+			// the erased types don't tell the elements apart, the value would be copied by reference into a List<Role> from a List<RoleDto>.
+			return genericDestinationType.equals(reader.getGenericReturnType());
+		}
+		return MethodType.methodType(destinationType).wrap().returnType().isAssignableFrom(MethodType.methodType(reader.getReturnType()).wrap().returnType());
+	}
+
+	private static Function<Object, Object> getter(final Method method) throws IllegalAccessException {
+		final MethodHandle handle = LOOKUP.unreflect(method);
+		try {
+			final CallSite callSite = LambdaMetafactory.metafactory(LOOKUP,
+																	"apply",
+																	MethodType.methodType(Function.class),
+																	MethodType.methodType(Object.class, Object.class),
+																	handle,
+																	handle.type().wrap());
+			return (Function<Object, Object>) create(callSite);
+		} catch (final LambdaConversionException | RuntimeException linkException) {
+			// the class is not visible from zebra (e.g. loaded by another class loader), call the method handle.
+			final MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+			return source -> {
+				try {
+					return generic.invokeExact(source);
+				} catch (final RuntimeException | Error exception) {
+					throw exception;
+				} catch (final Throwable invokeThrowable) {
+					throw new IllegalStateException(invokeThrowable.getMessage(), invokeThrowable);
+				}
+			};
+		}
+	}
+
+	private static BiConsumer<Object, Object> setter(final Method method) throws IllegalAccessException {
+		final MethodHandle handle = LOOKUP.unreflect(method);
+		try {
+			final CallSite callSite = LambdaMetafactory.metafactory(LOOKUP,
+																	"accept",
+																	MethodType.methodType(BiConsumer.class),
+																	MethodType.methodType(void.class, Object.class, Object.class),
+																	handle,
+																	handle.type().wrap().changeReturnType(void.class));
+			return (BiConsumer<Object, Object>) create(callSite);
+		} catch (final LambdaConversionException | RuntimeException linkException) {
+			final MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			return (destination, value) -> {
+				try {
+					generic.invokeExact(destination, value);
+				} catch (final RuntimeException | Error exception) {
+					throw exception;
+				} catch (final Throwable invokeThrowable) {
+					throw new IllegalStateException(invokeThrowable.getMessage(), invokeThrowable);
+				}
+			};
+		}
+	}
+
+	private static Supplier<Object> factory(final Class<?> destinationClass) {
+		final MethodHandle constructor;
+		try {
+			constructor = LOOKUP.findConstructor(destinationClass, MethodType.methodType(void.class));
+		} catch (final NoSuchMethodException | IllegalAccessException exception) {
+			return null;
+		}
+		try {
+			final CallSite callSite = LambdaMetafactory.metafactory(LOOKUP,
+																	"get",
+																	MethodType.methodType(Supplier.class),
+																	MethodType.methodType(Object.class),
+																	constructor,
+																	MethodType.methodType(destinationClass));
+			return (Supplier<Object>) create(callSite);
+		} catch (final LambdaConversionException | RuntimeException linkException) {
+			final MethodHandle generic = constructor.asType(MethodType.methodType(Object.class));
+			return () -> {
+				try {
+					return generic.invokeExact();
+				} catch (final RuntimeException | Error exception) {
+					throw exception;
+				} catch (final Throwable invokeThrowable) {
+					throw new IllegalStateException(invokeThrowable.getMessage(), invokeThrowable);
+				}
+			};
+		}
+	}
+
+	/**
+	 * @return the functional instance created by the call site of the LambdaMetafactory, an Error is thrown as is.
+	 */
+	private static Object create(final CallSite callSite) {
+		try {
+			return callSite.getTarget().invoke();
+		} catch (final RuntimeException | Error exception) {
+			throw exception;
+		} catch (final Throwable throwable) {
+			throw new IllegalStateException(throwable.getMessage(), throwable);
+		}
+	}
+
+	/**
+	 * @return the record components of the class or null if it is not a record.
+	 */
+	private static Object[] recordComponents(final Class<?> type) {
+		if (IS_RECORD == null || !Boolean.TRUE.equals(invoke(type, IS_RECORD))) {
+			return null;
+		}
+		return (Object[]) invoke(type, GET_RECORD_COMPONENTS);
+	}
+
+	private static Object invoke(final Object target, final String methodName) {
+		return invoke(target, findMethod(target.getClass(), methodName));
+	}
+
+	private static Object invoke(final Object target, final Method method) {
+		try {
+			return method.invoke(target);
+		} catch (final ReflectiveOperationException exception) {
+			throw new IllegalStateException(exception.getMessage(), exception);
+		}
+	}
+
+	private static Method findMethod(final Class<?> type, final String methodName) {
+		try {
+			return type.getMethod(methodName);
+		} catch (final NoSuchMethodException exception) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,249 @@
+package com.agileasoft.zebra;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.agileasoft.zebra.metrics.MappingMetrics;
+
+/**
+ * Immutable two-level table of routes keyed by source class then destination class identity.<br>
+ * It is built once with all registered mappers, the direction of each route is already resolved : a mapper registered for A to B
+ * gives the route A to B (mapAToB) and, if no mapper is registered for B to A, the route B to A (mapBToA).<br>
+ * A lookup is two identity hash lookups and allocates nothing.<br>
+ * When no route is registered for the exact source class (a proxy, an anonymous class or any subclass), the route of the most
+ * specific registered superclass or interface is used. This resolution is done once per runtime class and destination class, and
+ * the result is kept, even when no route is found.<br>
+ * When the transitive mapping is enabled, the shortest chain of registered routes between every pair of registered classes
+ * without a route of its own is found once here and kept in a second table of the same shape, used only after the registered
+ * routes of the source class and of its hierarchy.<br>
+ * When the auto mapping is enabled, a pair of classes without any registered route gets a {@link ConventionMapper}, built once
+ * per pair and kept apart from the registered routes.
+ *
+ * @author amgohan
+ */
+final class DispatchTable {
+
+	private static final Object NO_ROUTE = new Object();
+
+	private final Map<Class<?>, Map<Class<?>, MappingRoute>> routes;
+
+	// routes through other classes by source class then destination class, null when the transitive mapping is disabled.
+	private final Map<Class<?>, Map<Class<?>, MappingRoute>> chainedRoutes;
+
+	// routes resolved through the hierarchy of the source class, by destination class.
+	private final ClassValue<ConcurrentMap<Class<?>, Object>> inheritedRoutes = new ClassValue<ConcurrentMap<Class<?>, Object>>() {
+
+		@Override
+		protected ConcurrentMap<Class<?>, Object> computeValue(final Class<?> sourceClass) {
+			return new ConcurrentHashMap<Class<?>, Object>();
+		}
+	};
+
+	// routes of the convention mappers by source class then destination class, null when the auto mapping is disabled.
+	private final ClassValue<ConcurrentMap<Class<?>, Object>> conventionRoutes;
+
+	private final MappingMetrics metrics;
+
+	/**
+	 * build the table from all registrations.
+	 *
+	 * @param registrations
+	 *            registered mappers with their resolved classes.
+	 * @param metrics
+	 *            the metrics receiving every call of a route or null.
+	 * @param autoMapping
+	 *            true to create a convention mapper for the pairs of classes without registered mapper.
+	 * @param transitiveMapping
+	 *            true to chain the registered routes for the pairs of classes without registered mapper.
+	 */
+	DispatchTable(final List<MapperRegistration> registrations, final MappingMetrics metrics, final boolean autoMapping, final boolean transitiveMapping) {
+		this.metrics = metrics;
+		this.conventionRoutes = !autoMapping ? null : new ClassValue<ConcurrentMap<Class<?>, Object>>() {
+
+			@Override
+			protected ConcurrentMap<Class<?>, Object> computeValue(final Class<?> sourceClass) {
+				return new ConcurrentHashMap<Class<?>, Object>();
+			}
+		};
+		final Map<Class<?>, Map<Class<?>, List<MapperHolder>>> mappers = new IdentityHashMap<Class<?>, Map<Class<?>, List<MapperHolder>>>();
+		// every registered class once, in the order of the registrations, so the chains don't depend on identity hash codes.
+		final Set<Class<?>> registeredClasses = new LinkedHashSet<Class<?>>();
+		for (final MapperRegistration registration : registrations) {
+			registeredClasses.add(registration.sourceClass);
+			registeredClasses.add(registration.destinationClass);
+			Map<Class<?>, List<MapperHolder>> byDestination = mappers.get(registration.sourceClass);
+			if (byDestination == null) {
+				byDestination = new IdentityHashMap<Class<?>, List<MapperHolder>>();
+				mappers.put(registration.sourceClass, byDestination);
+			}
+			List<MapperHolder> pairMappers = byDestination.get(registration.destinationClass);
+			if (pairMappers == null) {
+				pairMappers = new ArrayList<MapperHolder>(1);
+				byDestination.put(registration.destinationClass, pairMappers);
+			}
+			pairMappers.add(registration.holder);
+		}
+
+		this.routes = new IdentityHashMap<Class<?>, Map<Class<?>, MappingRoute>>();
+		// straight routes first, they always win over a reverse route of the same pair.
+		for (final Entry<Class<?>, Map<Class<?>, List<MapperHolder>>> bySource : mappers.entrySet()) {
+			for (final Entry<Class<?>, List<MapperHolder>> byDestination : bySource.getValue().entrySet()) {
+				routesFrom(this.routes, bySource.getKey()).put(byDestination.getKey(), MappingRoute.of(byDestination.getValue(), false, metrics));
+			}
+		}
+		for (final Entry<Class<?>, Map<Class<?>, List<MapperHolder>>> bySource : mappers.entrySet()) {
+			for (final Entry<Class<?>, List<MapperHolder>> byDestination : bySource.getValue().entrySet()) {
+				final Map<Class<?>, MappingRoute> reverseRoutes = routesFrom(this.routes, byDestination.getKey());
+				if (!reverseRoutes.containsKey(bySource.getKey())) {
+					reverseRoutes.put(bySource.getKey(), MappingRoute.of(byDestination.getValue(), true, metrics));
+				}
+			}
+		}
+		this.chainedRoutes = transitiveMapping ? this.chainRoutes(new ArrayList<Class<?>>(registeredClasses)) : null;
+	}
+
+	/**
+	 * find the route to map an instance of sourceClass to an instance of destinationClass.
+	 *
+	 * @param sourceClass
+	 *            the runtime class of the source instance.
+	 * @param destinationClass
+	 *            the wanted class.
+	 * @return the route or null if no mapper is registered in any direction for this pair or for a superclass or an interface of the
+	 *         source class, and no chain of registered mappers joins them when the transitive mapping is enabled.
+	 */
+	MappingRoute get(final Class<?> sourceClass, final Class<?> destinationClass) {
+		final MappingRoute route = getExact(this.routes, sourceClass, destinationClass);
+		if (route != null) {
+			return route;
+		}
+		final ConcurrentMap<Class<?>, Object> byDestination = this.inheritedRoutes.get(sourceClass);
+		Object inheritedRoute = byDestination.get(destinationClass);
+		if (inheritedRoute == null) {
+			MappingRoute resolved = resolveInherited(this.routes, sourceClass, destinationClass);
+			if (resolved == null && this.chainedRoutes != null) {
+				resolved = getExact(this.chainedRoutes, sourceClass, destinationClass);
+				if (resolved == null) {
+					resolved = resolveInherited(this.chainedRoutes, sourceClass, destinationClass);
+				}
+			}
+			inheritedRoute = resolved == null ? NO_ROUTE : resolved;
+			byDestination.putIfAbsent(destinationClass, inheritedRoute);
+		}
+		return inheritedRoute == NO_ROUTE ? null : (MappingRoute) inheritedRoute;
+	}
+
+	/**
+	 * find the route of the convention mapper of a pair of classes, to use when {@link #get(Class, Class)} finds nothing.
+	 *
+	 * @param sourceClass
+	 *            the runtime class of the source instance.
+	 * @param destinationClass
+	 *            the wanted class.
+	 * @return the route or null if the auto mapping is disabled or if no property can be mapped.
+	 */
+	MappingRoute getConvention(final Class<?> sourceClass, final Class<?> destinationClass) {
+		if (this.conventionRoutes == null) {
+			return null;
+		}
+		final ConcurrentMap<Class<?>, Object> byDestination = this.conventionRoutes.get(sourceClass);
+		Object conventionRoute = byDestination.get(destinationClass);
+		if (conventionRoute == null) {
+			final ConventionMapper conventionMapper = ConventionMapper.of(sourceClass, destinationClass);
+			conventionRoute = conventionMapper == null ? NO_ROUTE : MappingRoute.of(Collections.singletonList(MapperHolder.of(conventionMapper)), false, this.metrics);
+			final Object existing = byDestination.putIfAbsent(destinationClass, conventionRoute);
+			if (existing != null) {
+				conventionRoute = existing;
+			}
+		}
+		return conventionRoute == NO_ROUTE ? null : (MappingRoute) conventionRoute;
+	}
+
+	/**
+	 * find the shortest chains with a breadth first search from every registered class, through the routes which are not
+	 * ambiguous. A pair joined by a route of its own is never chained, between chains of the same length the first found wins.
+	 */
+	private Map<Class<?>, Map<Class<?>, MappingRoute>> chainRoutes(final List<Class<?>> classes) {
+		final Map<Class<?>, Map<Class<?>, MappingRoute>> chains = new IdentityHashMap<Class<?>, Map<Class<?>, MappingRoute>>();
+		for (final Class<?> sourceClass : classes) {
+			// the class each reached class is reached from.
+			final Map<Class<?>, Class<?>> previous = new IdentityHashMap<Class<?>, Class<?>>();
+			final Deque<Class<?>> reached = new ArrayDeque<Class<?>>();
+			previous.put(sourceClass, sourceClass);
+			reached.add(sourceClass);
+			while (!reached.isEmpty()) {
+				final Class<?> current = reached.poll();
+				for (final Class<?> next : classes) {
+					final MappingRoute hop = getExact(this.routes, current, next);
+					if (hop == null || hop.isAmbiguous() || previous.containsKey(next)) {
+						continue;
+					}
+					previous.put(next, current);
+					reached.add(next);
+					if (current != sourceClass && getExact(this.routes, sourceClass, next) == null) {
+						final LinkedList<MappingRoute> hops = new LinkedList<MappingRoute>();
+						for (Class<?> to = next; to != sourceClass; to = previous.get(to)) {
+							hops.addFirst(getExact(this.routes, previous.get(to), to));
+						}
+						routesFrom(chains, sourceClass).put(next, MappingRoute.chain(hops));
+					}
+				}
+			}
+		}
+		return chains;
+	}
+
+	private static MappingRoute getExact(final Map<Class<?>, Map<Class<?>, MappingRoute>> table, final Class<?> sourceClass, final Class<?> destinationClass) {
+		final Map<Class<?>, MappingRoute> byDestination = table.get(sourceClass);
+		return byDestination == null ? null : byDestination.get(destinationClass);
+	}
+
+	/**
+	 * look for a route of the superclasses from the nearest one, then of the interfaces from the nearest ones. Object comes last.
+	 */
+	private static MappingRoute resolveInherited(final Map<Class<?>, Map<Class<?>, MappingRoute>> table, final Class<?> sourceClass, final Class<?> destinationClass) {
+		for (Class<?> superclass = sourceClass.getSuperclass(); superclass != null && superclass != Object.class; superclass = superclass.getSuperclass()) {
+			final MappingRoute route = getExact(table, superclass, destinationClass);
+			if (route != null) {
+				return route;
+			}
+		}
+		final Deque<Class<?>> interfaces = new ArrayDeque<Class<?>>();
+		for (Class<?> type = sourceClass; type != null; type = type.getSuperclass()) {
+			for (final Class<?> implemented : type.getInterfaces()) {
+				interfaces.add(implemented);
+			}
+		}
+		while (!interfaces.isEmpty()) {
+			final Class<?> implemented = interfaces.poll();
+			final MappingRoute route = getExact(table, implemented, destinationClass);
+			if (route != null) {
+				return route;
+			}
+			for (final Class<?> superInterface : implemented.getInterfaces()) {
+				interfaces.add(superInterface);
+			}
+		}
+		return getExact(table, Object.class, destinationClass);
+	}
+
+	private static Map<Class<?>, MappingRoute> routesFrom(final Map<Class<?>, Map<Class<?>, MappingRoute>> table, final Class<?> sourceClass) {
+		Map<Class<?>, MappingRoute> byDestination = table.get(sourceClass);
+		if (byDestination == null) {
+			byDestination = new IdentityHashMap<Class<?>, MappingRoute>();
+			table.put(sourceClass, byDestination);
+		}
+		return byDestination;
+	}
+}
@@ -0,0 +1,62 @@
+package com.agileasoft.zebra;
+
+/**
+ * The base class for the mappers of a primitive double to an object, without boxing. <br>
+ * It is registered and resolved like any Mapper&lt;Double, B&gt; : {@link MapperProcessor#map(Object, Class)} still works with a boxed
+ * value, while the batch methods {@link MapperProcessor#mapDoubles(double[], Class)} and {@link MapperProcessor#mapToDoubles(java.util.List, Class)}
+ * call mapDouble and mapToDouble directly. The subclasses must implement mapDouble, mapToDouble is optional, only if we want create a
+ * bidirectional mapper.<br>
+ * A mapper registered with a scope is called directly too, with one instance for the whole batch. A memoized mapper is called with
+ * boxed values, since the keys of its cache are objects.
+ *
+ * @author amgohan
+ * @param <B>
+ *            destination class
+ */
+public abstract class DoubleToObjMapper<B> extends PrimitiveToObjMapper<Double, B> {
+
+	/**
+	 * Method to map a primitive double to an instance of type B.
+	 *
+	 * @param source
+	 *            the double value
+	 * @return destination class B
+	 */
+	public abstract B mapDouble(final double source);
+
+	/**
+	 * Method to map back an instance of type B to a primitive double. This method is optional.
+	 *
+	 * @param source
+	 *            class B
+	 * @return the double value
+	 */
+	public double mapToDouble(final B source) {
+
+		throw new UnsupportedOperationException("method not implemented.");
+	}
+
+	@Override
+	final B mapValue(final Double source) {
+
+		return this.mapDouble(source.doubleValue());
+	}
+
+	@Override
+	final Double mapToValue(final B source) {
+
+		return Double.valueOf(this.mapToDouble(source));
+	}
+
+	@Override
+	final B mapElement(final Object values, final int index) {
+
+		return this.mapDouble(((double[]) values)[index]);
+	}
+
+	@Override
+	final void mapToElement(final B source, final Object values, final int index) {
+
+		((double[]) values)[index] = this.mapToDouble(source);
+	}
+}
@@ -0,0 +1,200 @@
+package com.agileasoft.zebra;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The base class for the mappers of the constants of an enum. <br>
+ * mapConstant is called once per constant when the mapper is registered in a MapperProcessor, the results are kept in a table
+ * indexed by ordinal : mapAToB is an array load which allocates nothing, and always returns the same instance for a constant, so
+ * the destinations must never be modified.<br>
+ * mapBToA is precomputed too : when B is an enum the reverse table is indexed by the ordinal of B, else the instances returned by
+ * mapConstant are found by identity, then by equals. Two constants mapped to the same destination are reversed to the first one.
+ *
+ * <pre>
+ * {
+ * 	&#064;code
+ * 	public class RoleDtoEntityMapper extends EnumMapper&lt;RoleDto, Role&gt; {
+ * 		public RoleDtoEntityMapper() {
+ * 			super(RoleDto.class);
+ * 		}
+ *
+ * 		protected Role mapConstant(final RoleDto dto) {
+ * 			return new Role(dto.name(), dto.getDescription());
+ * 		}
+ * 	}
+ * }
+ * </pre>
+ *
+ * @author amgohan
+ * @param <E>
+ *            source enum
+ * @param <B>
+ *            destination class
+ */
+public abstract class EnumMapper<E extends Enum<E>, B> extends Mapper<E, B> {
+
+	private final Class<E> enumClass;
+
+	private Object[] destinations;
+
+	// reverse table by ordinal when B is an enum.
+	private E[] sourcesByOrdinal;
+
+	private Map<Object, E> sourcesByIdentity;
+
+	private Map<Object, E> sourcesByEquality;
+
+	/**
+	 * @param enumClass
+	 *            the class of the source enum.
+	 */
+	protected EnumMapper(final Class<E> enumClass) {
+		if (enumClass == null || !enumClass.isEnum()) {
+			throw new IllegalArgumentException("enumClass must be an enum class.");
+		}
+		this.enumClass = enumClass;
+	}
+
+	/**
+	 * Create a mapper of the constants of an enum to the constants with the same name of another enum. Register it with its classes :
+	 * {@code factory.register(RoleDto.class, Role.class, EnumMapper.byName(RoleDto.class, Role.class))}.
+	 *
+	 * @param enumClass
+	 *            the class of the source enum.
+	 * @param destinationClass
+	 *            the class of the destination enum, it must have a constant for every name of the source enum.
+	 * @param <E>
+	 *            source enum
+	 * @param <F>
+	 *            destination enum
+	 * @return the mapper.
+	 */
+	public static <E extends Enum<E>, F extends Enum<F>> EnumMapper<E, F> byName(final Class<E> enumClass, final Class<F> destinationClass) {
+		if (destinationClass == null || !destinationClass.isEnum()) {
+			throw new IllegalArgumentException("destinationClass must be an enum class.");
+		}
+		return new EnumMapper<E, F>(enumClass) {
+
+			@Override
+			protected F mapConstant(final E constant) {
+				try {
+					return Enum.valueOf(destinationClass, constant.name());
+				} catch (final IllegalArgumentException exception) {
+					throw new IllegalStateException("no constant " + constant.name() + " in " + destinationClass.getName(), exception);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Method to map a constant of the enum, called once per constant.
+	 *
+	 * @param constant
+	 *            the source constant
+	 * @return destination class B
+	 */
+	protected abstract B mapConstant(final E constant);
+
+	/**
+	 * Method to reverse a destination which was not returned by mapConstant.
+	 *
+	 * @param source
+	 *            class B
+	 * @return the constant, by default an IllegalArgumentException is thrown.
+	 */
+	protected E unmapped(final B source) {
+
+		throw new IllegalArgumentException("no constant of " + this.enumClass.getName() + " is mapped to " + source);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public final B mapAToB(final E source) {
+
+		if (source == null) {
+			return null;
+		}
+		if (this.destinations == null) {
+			throw new IllegalStateException("the enum mapper " + this.getClass().getName() + " must be registered before it is used.");
+		}
+		return (B) this.destinations[source.ordinal()];
+	}
+
+	@Override
+	public final E mapBToA(final B source) {
+
+		if (source == null) {
+			return null;
+		}
+		if (this.destinations == null) {
+			throw new IllegalStateException("the enum mapper " + this.getClass().getName() + " must be registered before it is used.");
+		}
+		E constant;
+		if (this.sourcesByOrdinal != null) {
+			final int ordinal = ((Enum<?>) source).ordinal();
+			constant = ordinal < this.sourcesByOrdinal.length ? this.sourcesByOrdinal[ordinal] : null;
+		} else {
+			constant = this.sourcesByIdentity.get(source);
+			if (constant == null) {
+				constant = this.sourcesByEquality.get(source);
+			}
+		}
+		return constant != null ? constant : this.unmapped(source);
+	}
+
+	/**
+	 * compute the tables of both directions once the MapperProcessor is given, so mapConstant can already use it.
+	 */
+	@Override
+	public void setMapper(final MapperProcessor mapper) {
+		super.setMapper(mapper);
+		final E[] constants = this.enumClass.getEnumConstants();
+		final Object[] mapped = new Object[constants.length];
+		Class<?> destinationEnum = null;
+		boolean allEnums = true;
+		for (final E constant : constants) {
+			final Object destination = this.mapConstant(constant);
+			mapped[constant.ordinal()] = destination;
+			if (destination instanceof Enum) {
+				final Class<?> declaringClass = ((Enum<?>) destination).getDeclaringClass();
+				allEnums &= destinationEnum == null || destinationEnum == declaringClass;
+				destinationEnum = declaringClass;
+			} else if (destination != null) {
+				allEnums = false;
+			}
+		}
+		if (allEnums && destinationEnum != null) {
+			this.sourcesByOrdinal = this.reverseByOrdinal(constants, mapped, destinationEnum.getEnumConstants().length);
+		} else {
+			this.sourcesByIdentity = new IdentityHashMap<Object, E>(constants.length);
+			this.sourcesByEquality = new HashMap<Object, E>(CollectionFactories.hashCapacity(constants.length));
+			for (final E constant : constants) {
+				final Object destination = mapped[constant.ordinal()];
+				if (destination != null) {
+					if (!this.sourcesByIdentity.containsKey(destination)) {
+						this.sourcesByIdentity.put(destination, constant);
+					}
+					if (!this.sourcesByEquality.containsKey(destination)) {
+						this.sourcesByEquality.put(destination, constant);
+					}
+				}
+			}
+		}
+		this.destinations = mapped;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E[] reverseByOrdinal(final E[] constants, final Object[] mapped, final int destinationSize) {
+		final E[] table = (E[]) Array.newInstance(this.enumClass, destinationSize);
+		for (final E constant : constants) {
+			final Enum<?> destination = (Enum<?>) mapped[constant.ordinal()];
+			if (destination != null && table[destination.ordinal()] == null) {
+				table[destination.ordinal()] = constant;
+			}
+		}
+		return table;
+	}
+}
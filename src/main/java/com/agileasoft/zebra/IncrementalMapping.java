@@ -0,0 +1,205 @@
+package com.agileasoft.zebra;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * A graph mapped by {@link MapperProcessor#mapIncremental(Object, Class)} which can be refreshed by mapping again only the changed
+ * source instances.<br>
+ * The source instances changed since the last refresh are given to {@link #markChanged(Object)}, for example by the change listener
+ * of the domain, then {@link #refresh()} maps them again :
+ * <ul>
+ * <li>when its mapper implements the optional mapAToB(source, destination), a changed source updates its existing destination, the
+ * destinations referencing it keep the same instance and are not mapped again.</li>
+ * <li>else a new destination is mapped, and the sources whose mapping mapped the changed one are mapped again too, up to the root
+ * if needed.</li>
+ * </ul>
+ * The unchanged sources met during a refresh give their existing destination, so the cost of a refresh depends on the size of the
+ * change and not on the size of the graph. A source added to the graph is mapped by the refresh of the changed source referencing
+ * it. Only markChanged can be called by several threads.
+ *
+ * @author amgohan
+ * @param <A>
+ *            source class
+ * @param <B>
+ *            destination class
+ */
+@SuppressWarnings("unchecked")
+public final class IncrementalMapping<A, B> {
+
+	private final MapperProcessor processor;
+
+	private final MappingContext context;
+
+	private final A source;
+
+	private final Class<B> destinationClass;
+
+	private B destination;
+
+	private final Set<Object> changed = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+	IncrementalMapping(final MapperProcessor processor, final MappingContext context, final A source, final Class<B> destinationClass, final B destination) {
+		this.processor = processor;
+		this.context = context;
+		this.source = source;
+		this.destinationClass = destinationClass;
+		this.destination = destination;
+	}
+
+	/**
+	 * @return the destination of the root source, a new instance after a refresh if its mapper can't update it.
+	 */
+	public B getDestination() {
+		return this.destination;
+	}
+
+	/**
+	 * @param sourceObject
+	 *            a source instance of the graph.
+	 * @return its current destination, the first one if it was mapped to several types, or null if it was not mapped.
+	 */
+	public Object getDestination(final Object sourceObject) {
+		final Iterator<Object> destinations = this.context.destinationsOf(sourceObject).values().iterator();
+		return destinations.hasNext() ? destinations.next() : null;
+	}
+
+	/**
+	 * @param sourceObject
+	 *            a source instance of the graph.
+	 * @param type
+	 *            the type it was mapped to.
+	 * @param <T>
+	 *            destination class
+	 * @return its current destination of this type or null if it was not mapped to this type.
+	 */
+	public <T> T getDestination(final Object sourceObject, final Class<T> type) {
+		return (T) this.context.destinationsOf(sourceObject).get(type);
+	}
+
+	/**
+	 * keep a source instance to map again at the next refresh. A source which was not mapped is ignored by the refresh.
+	 *
+	 * @param sourceObject
+	 *            the changed source instance.
+	 * @return this
+	 */
+	public IncrementalMapping<A, B> markChanged(final Object sourceObject) {
+		Objects.requireNonNull(sourceObject, "Changed source must be not null.");
+		synchronized (this.changed) {
+			this.changed.add(sourceObject);
+		}
+		return this;
+	}
+
+	/**
+	 * Same as {@link #markChanged(Object)} for several source instances, then {@link #refresh()}.
+	 *
+	 * @param changedSources
+	 *            the changed source instances.
+	 * @return the destination of the root source.
+	 */
+	public B refresh(final Collection<?> changedSources) {
+		for (final Object changedSource : changedSources) {
+			this.markChanged(changedSource);
+		}
+		return this.refresh();
+	}
+
+	/**
+	 * map again the source instances marked as changed since the last refresh.
+	 *
+	 * @return the destination of the root source.
+	 */
+	public B refresh() {
+		final Map<Object, Integer> depths = new IdentityHashMap<Object, Integer>();
+		// the deepest sources first, so a parent is mapped again after its changed children.
+		final Queue<Object> pending = new PriorityQueue<Object>(
+				(first, second) -> Integer.compare(this.depth(second, depths), this.depth(first, depths)));
+		synchronized (this.changed) {
+			pending.addAll(this.changed);
+			this.changed.clear();
+		}
+		final Set<Object> queued = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>(pending.size() * 2));
+		queued.addAll(pending);
+		this.processor.inContext(this.context, () -> {
+			while (!pending.isEmpty()) {
+				final Object changedSource = pending.poll();
+				queued.remove(changedSource);
+				if (this.remap(changedSource)) {
+					for (final Object parent : this.context.parentsOf(changedSource)) {
+						if (queued.add(parent)) {
+							pending.add(parent);
+						}
+					}
+				}
+			}
+			return null;
+		});
+		return this.destination;
+	}
+
+	/**
+	 * @return the length of the longest path from a root to the source, a cycle ends the path.
+	 */
+	private int depth(final Object sourceObject, final Map<Object, Integer> depths) {
+		final Integer known = depths.get(sourceObject);
+		if (known != null) {
+			return known;
+		}
+		depths.put(sourceObject, 0);
+		int depth = 0;
+		for (final Object parent : this.context.parentsOf(sourceObject)) {
+			depth = Math.max(depth, this.depth(parent, depths) + 1);
+		}
+		depths.put(sourceObject, depth);
+		return depth;
+	}
+
+	/**
+	 * map again the destinations of the source for every type it was mapped to, a destination kept for two types is mapped once.
+	 *
+	 * @return true if a destination was replaced by a new instance.
+	 */
+	private boolean remap(final Object changedSource) {
+		final Map<Object, Object> updatedByPrevious = new IdentityHashMap<Object, Object>(4);
+		boolean replaced = false;
+		for (final Map.Entry<Class<?>, Object> entry : this.context.destinationsOf(changedSource).entrySet()) {
+			final Object previous = entry.getValue();
+			Object updated = updatedByPrevious.get(previous);
+			if (updated == null) {
+				updated = this.remap(changedSource, entry.getKey(), previous);
+				updatedByPrevious.put(previous, updated);
+			}
+			if (updated != previous) {
+				replaced = true;
+				this.context.put(changedSource, entry.getKey(), updated);
+				if (changedSource == this.source && entry.getKey() == this.destinationClass) {
+					this.destination = (B) updated;
+				}
+			}
+		}
+		return replaced;
+	}
+
+	/**
+	 * @return the destination of the source, the previous one if it could be updated.
+	 */
+	private Object remap(final Object changedSource, final Class<?> mappedType, final Object previous) {
+		// the type asked by the mapping, an interface or a superclass of the previous destination finds the same mapper.
+		final MappingRoute route = this.processor.findRouteInto(changedSource.getClass(), mappedType);
+		this.context.enter(changedSource);
+		try {
+			return route.updatesInPlace() ? route.mapInto(changedSource, previous) : route.map(changedSource);
+		} finally {
+			this.context.exit();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.agileasoft.zebra;
+
+/**
+ * The base class for the mappers of a primitive int to an object, without boxing. <br>
+ * It is registered and resolved like any Mapper&lt;Integer, B&gt; : {@link MapperProcessor#map(Object, Class)} still works with a boxed
+ * value, while the batch methods {@link MapperProcessor#mapInts(int[], Class)} and {@link MapperProcessor#mapToInts(java.util.List, Class)}
+ * call mapInt and mapToInt directly. The subclasses must implement mapInt, mapToInt is optional, only if we want create a
+ * bidirectional mapper.<br>
+ * A mapper registered with a scope is called directly too, with one instance for the whole batch. A memoized mapper is called with
+ * boxed values, since the keys of its cache are objects.
+ *
+ * @author amgohan
+ * @param <B>
+ *            destination class
+ */
+public abstract class IntToObjMapper<B> extends PrimitiveToObjMapper<Integer, B> {
+
+	/**
+	 * Method to map a primitive int to an instance of type B.
+	 *
+	 * @param source
+	 *            the int value
+	 * @return destination class B
+	 */
+	public abstract B mapInt(final int source);
+
+	/**
+	 * Method to map back an instance of type B to a primitive int. This method is optional.
+	 *
+	 * @param source
+	 *            class B
+	 * @return the int value
+	 */
+	public int mapToInt(final B source) {
+
+		throw new UnsupportedOperationException("method not implemented.");
+	}
+
+	@Override
+	final B mapValue(final Integer source) {
+
+		return this.mapInt(source.intValue());
+	}
+
+	@Override
+	final Integer mapToValue(final B source) {
+
+		return Integer.valueOf(this.mapToInt(source));
+	}
+
+	@Override
+	final B mapElement(final Object values, final int index) {
+
+		return this.mapInt(((int[]) values)[index]);
+	}
+
+	@Override
+	final void mapToElement(final B source, final Object values, final int index) {
+
+		((int[]) values)[index] = this.mapToInt(source);
+	}
+}
@@ -0,0 +1,96 @@
+package com.agileasoft.zebra;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * A read only view of a source list where each element is mapped only when it is read.<br>
+ * When memoized, an element is mapped at most once and the same instance is returned on the next reads, otherwise it is mapped on
+ * every read and nothing is kept.
+ *
+ * @author amgohan
+ * @param <B>
+ *            destination class
+ */
+@SuppressWarnings("unchecked")
+class LazyMappedList<B> extends AbstractList<B> {
+
+	private static final Object NOT_MAPPED = new Object();
+
+	private final List<?> source;
+
+	private final Function<Object, Object> elementMapper;
+
+	private final Object[] mapped;
+
+	private LazyMappedList(final List<?> source, final Function<Object, Object> elementMapper, final boolean memoize) {
+		this.source = source;
+		this.elementMapper = elementMapper;
+		if (memoize) {
+			this.mapped = new Object[source.size()];
+			Arrays.fill(this.mapped, NOT_MAPPED);
+		} else {
+			this.mapped = null;
+		}
+	}
+
+	/**
+	 * create the view, it gives random access only if the source list does or if the view is memoized.<br>
+	 * A memoized view reads its elements by index even while iterating, so the elements of a source without random access, like a
+	 * LinkedList, are copied once into an array instead of walking the source on every read.
+	 *
+	 * @param source
+	 *            the source list, its size must not change while the memoized view is used.
+	 * @param elementMapper
+	 *            the mapping of one element.
+	 * @param memoize
+	 *            true to keep the mapped elements.
+	 * @return the view.
+	 */
+	static <B> List<B> of(final List<?> source, final Function<Object, Object> elementMapper, final boolean memoize) {
+		if (source instanceof RandomAccess) {
+			return new RandomAccessLazyMappedList<B>(source, elementMapper, memoize);
+		}
+		if (memoize) {
+			return new RandomAccessLazyMappedList<B>(Arrays.asList(source.toArray()), elementMapper, true);
+		}
+		return new LazyMappedList<B>(source, elementMapper, memoize);
+	}
+
+	@Override
+	public B get(final int index) {
+		if (this.mapped == null) {
+			return (B) this.elementMapper.apply(this.source.get(index));
+		}
+		Object element = this.mapped[index];
+		if (element == NOT_MAPPED) {
+			element = this.elementMapper.apply(this.source.get(index));
+			this.mapped[index] = element;
+		}
+		return (B) element;
+	}
+
+	@Override
+	public int size() {
+		return this.mapped == null ? this.source.size() : this.mapped.length;
+	}
+
+	@Override
+	public Iterator<B> iterator() {
+		if (this.mapped == null) {
+			return new MappedIterator<B>(this.source.iterator(), this.elementMapper);
+		}
+		return super.iterator();
+	}
+
+	private static final class RandomAccessLazyMappedList<B> extends LazyMappedList<B> implements RandomAccess {
+
+		RandomAccessLazyMappedList(final List<?> source, final Function<Object, Object> elementMapper, final boolean memoize) {
+			super(source, elementMapper, memoize);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.agileasoft.zebra;
+
+/**
+ * The base class for the mappers of a primitive long to an object, without boxing. <br>
+ * It is registered and resolved like any Mapper&lt;Long, B&gt; : {@link MapperProcessor#map(Object, Class)} still works with a boxed
+ * value, while the batch methods {@link MapperProcessor#mapLongs(long[], Class)} and {@link MapperProcessor#mapToLongs(java.util.List, Class)}
+ * call mapLong and mapToLong directly. The subclasses must implement mapLong, mapToLong is optional, only if we want create a
+ * bidirectional mapper.<br>
+ * A mapper registered with a scope is called directly too, with one instance for the whole batch. A memoized mapper is called with
+ * boxed values, since the keys of its cache are objects.
+ *
+ * @author amgohan
+ * @param <B>
+ *            destination class
+ */
+public abstract class LongToObjMapper<B> extends PrimitiveToObjMapper<Long, B> {
+
+	/**
+	 * Method to map a primitive long to an instance of type B.
+	 *
+	 * @param source
+	 *            the long value
+	 * @return destination class B
+	 */
+	public abstract B mapLong(final long source);
+
+	/**
+	 * Method to map back an instance of type B to a primitive long. This method is optional.
+	 *
+	 * @param source
+	 *            class B
+	 * @return the long value
+	 */
+	public long mapToLong(final B source) {
+
+		throw new UnsupportedOperationException("method not implemented.");
+	}
+
+	@Override
+	final B mapValue(final Long source) {
+
+		return this.mapLong(source.longValue());
+	}
+
+	@Override
+	final Long mapToValue(final B source) {
+
+		return Long.valueOf(this.mapToLong(source));
+	}
+
+	@Override
+	final B mapElement(final Object values, final int index) {
+
+		return this.mapLong(((long[]) values)[index]);
+	}
+
+	@Override
+	final void mapToElement(final B source, final Object values, final int index) {
+
+		((long[]) values)[index] = this.mapToLong(source);
+	}
+}
@@ -0,0 +1,34 @@
+package com.agileasoft.zebra;
+
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * An iterator that maps each element of the source iterator only when it is read.
+ *
+ * @author amgohan
+ * @param <B>
+ *            destination class
+ */
+@SuppressWarnings("unchecked")
+final class MappedIterator<B> implements Iterator<B> {
+
+	private final Iterator<?> source;
+
+	private final Function<Object, Object> elementMapper;
+
+	MappedIterator(final Iterator<?> source, final Function<Object, Object> elementMapper) {
+		this.source = source;
+		this.elementMapper = elementMapper;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return this.source.hasNext();
+	}
+
+	@Override
+	public B next() {
+		return (B) this.elementMapper.apply(this.source.next());
+	}
+}
@@ -38,6 +38,57 @@ public abstract class Mapper<A, B> {
 		throw new UnsupportedOperationException("method not implemented.");
 	}
 
+	/**
+	 * Method to map an instance of type A into an existing instance of type B, to reuse the destination instead of creating a new one.
+	 * This method is optional, it is called by {@link MapperProcessor#mapInto(Object, Object)}.
+	 *
+	 * @param source
+	 *            class A
+	 * @param destination
+	 *            the existing instance of class B to update
+	 * @return the updated destination
+	 */
+	public B mapAToB(final A source, final B destination) {
+
+		throw new UnsupportedOperationException("method not implemented.");
+	}
+
+	/**
+	 * Method to map back an instance of type B into an existing instance of type A. This method is optional.
+	 *
+	 * @param source
+	 *            class B
+	 * @param destination
+	 *            the existing instance of class A to update
+	 * @return the updated destination
+	 */
+	public A mapBToA(final B source, final A destination) {
+
+		throw new UnsupportedOperationException("method not implemented.");
+	}
+
+	/**
+	 * @param reverse
+	 *            true for mapBToA.
+	 * @return true if the mapper implements the optional method mapping into an existing destination for this direction.
+	 */
+	boolean updatesInPlace(final boolean reverse) {
+		try {
+			return this.getClass().getMethod(reverse ? "mapBToA" : "mapAToB", Object.class, Object.class).getDeclaringClass() != Mapper.class;
+		} catch (final NoSuchMethodException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	/**
+	 * @return the class reported by the metrics and the errors for this mapper, the class of the wrapped mapper for an internal
+	 *         wrapper.
+	 */
+	@SuppressWarnings("rawtypes")
+	Class<? extends Mapper> getMapperClass() {
+		return this.getClass();
+	}
+
 	/**
 	 * this setter can be called one time for a specific mapper.
 	 *
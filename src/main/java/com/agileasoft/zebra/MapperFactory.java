@@ -1,13 +1,12 @@
 package com.agileasoft.zebra;
 
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
 
+import com.agileasoft.zebra.metrics.MappingMetrics;
 import com.agileasoft.zebra.util.ZebraUtils;
 
 /**
@@ -18,7 +17,15 @@ import com.agileasoft.zebra.util.ZebraUtils;
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class MapperFactory {
 
-	private final Map<String, List<Mapper>> mappers = new HashMap<String, List<Mapper>>();
+	private final List<MapperRegistration> mappers = new ArrayList<MapperRegistration>();
+
+	private MappingMetrics metrics;
+
+	private boolean autoMapping;
+
+	private boolean transitiveMapping;
+
+	private boolean liveRegistry;
 
 	boolean mapperProcessorCreated = false;
 
@@ -38,15 +45,201 @@ public class MapperFactory {
 			throw new IllegalStateException("You can't register a new mapper after calling build method.");
 		}
 		Objects.requireNonNull(customMapper, "Null Mapper can't be registered.");
-		final Type[] mapperGenericTypes = ((ParameterizedType) customMapper.getClass().getGenericSuperclass()).getActualTypeArguments();
-		final Class<A> classA = (Class<A>) mapperGenericTypes[0];
-		final Class<B> classB = (Class<B>) mapperGenericTypes[1];
-		final String mapperKey = ZebraUtils.getMapperKey(classA, classB);
+		final Class<?>[] mapperTypes = ZebraUtils.getMapperTypes(customMapper.getClass());
+		this.mappers.add(new MapperRegistration(mapperTypes[0], mapperTypes[1], MapperHolder.of(MemoizingMapper.memoize(customMapper, 0, false))));
+		return this;
+	}
+
+	/**
+	 * register a unique mapper with its already known classes, no reflection is used to resolve them.
+	 *
+	 * @param classA
+	 *            source class of the mapper.
+	 * @param classB
+	 *            destination class of the mapper.
+	 * @param customMapper
+	 *            a mapper thant extends from the abstract Mapper.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return this
+	 */
+	public <A, B> MapperFactory register(final Class<A> classA, final Class<B> classB, final Mapper<A, B> customMapper) {
+		if (this.mapperProcessorCreated) {
+			throw new IllegalStateException("You can't register a new mapper after calling build method.");
+		}
+		Objects.requireNonNull(classA, "Source class must be not null.");
+		Objects.requireNonNull(classB, "Destination class must be not null.");
+		Objects.requireNonNull(customMapper, "Null Mapper can't be registered.");
+		this.mappers.add(new MapperRegistration(classA, classB, MapperHolder.of(MemoizingMapper.memoize(customMapper, 0, false))));
+		return this;
+	}
+
+	/**
+	 * register a mapper created only when it is used for the first time.<br>
+	 * The supplier is called at most once, by the first mapping that needs the mapper, and the created mapper is initialized before
+	 * any thread can use it. Use it for heavy mappers that most runs never use.<br>
+	 * The class of the mapper is unknown until it is created, so straightMap and reverseMap can't find it : use
+	 * {@link #register(Class, Class, Class, Supplier)} for a mapper called by its class.
+	 *
+	 * @param classA
+	 *            source class of the mapper.
+	 * @param classB
+	 *            destination class of the mapper.
+	 * @param mapperSupplier
+	 *            create the mapper, it must not return null.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return this
+	 */
+	public <A, B> MapperFactory register(final Class<A> classA, final Class<B> classB, final Supplier<? extends Mapper<A, B>> mapperSupplier) {
+		return this.registerLazy(classA, classB, null, mapperSupplier);
+	}
+
+	/**
+	 * Same as {@link #register(Class, Class, Supplier)} with the class of the created mapper : straightMap and reverseMap find the
+	 * mapper by this class and create it on their first call, without creating any other mapper.
+	 *
+	 * @param classA
+	 *            source class of the mapper.
+	 * @param classB
+	 *            destination class of the mapper.
+	 * @param mapperClass
+	 *            the class of the mapper returned by the supplier.
+	 * @param mapperSupplier
+	 *            create the mapper, it must not return null.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @param <M>
+	 *            mapper class
+	 * @return this
+	 */
+	public <A, B, M extends Mapper<A, B>> MapperFactory register(final Class<A> classA,
+			final Class<B> classB,
+			final Class<M> mapperClass,
+			final Supplier<? extends M> mapperSupplier) {
+		Objects.requireNonNull(mapperClass, "Mapper class must be not null.");
+		return this.registerLazy(classA, classB, mapperClass, mapperSupplier);
+	}
 
-		if (!this.mappers.containsKey(mapperKey)) {
-			this.mappers.put(mapperKey, new ArrayList<Mapper>());
+	private MapperFactory registerLazy(final Class<?> classA, final Class<?> classB, final Class<? extends Mapper> mapperClass, final Supplier<? extends Mapper> mapperSupplier) {
+		if (this.mapperProcessorCreated) {
+			throw new IllegalStateException("You can't register a new mapper after calling build method.");
 		}
-		this.mappers.get(mapperKey).add(customMapper);
+		Objects.requireNonNull(classA, "Source class must be not null.");
+		Objects.requireNonNull(classB, "Destination class must be not null.");
+		Objects.requireNonNull(mapperSupplier, "Null Mapper supplier can't be registered.");
+		this.mappers.add(new MapperRegistration(classA, classB, MapperHolder.lazy(mapperSupplier, mapperClass)));
+		return this;
+	}
+
+	/**
+	 * register a mapper created by a supplier, with the instances shared between the threads as given by the scope.<br>
+	 * With {@link MapperScope#THREAD} or {@link MapperScope#POOLED}, an instance is never used by two threads at the same time : a
+	 * mapper can keep its formatters and buffers in fields, without synchronization or allocation on each call. The instances are
+	 * created on first use and get the MapperProcessor, a mapper annotated with {@link Memoized} keeps one cache per instance.<br>
+	 * The class of the mapper is unknown until an instance is created, so straightMap and reverseMap can't find it : use
+	 * {@link #register(Class, Class, Class, Supplier, MapperScope)} for a mapper called by its class.
+	 *
+	 * @param classA
+	 *            source class of the mapper.
+	 * @param classB
+	 *            destination class of the mapper.
+	 * @param mapperSupplier
+	 *            create the instances, it must not return null.
+	 * @param scope
+	 *            how the instances are shared.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return this
+	 */
+	public <A, B> MapperFactory register(final Class<A> classA, final Class<B> classB, final Supplier<? extends Mapper<A, B>> mapperSupplier, final MapperScope scope) {
+		return this.registerScoped(classA, classB, null, mapperSupplier, scope);
+	}
+
+	/**
+	 * Same as {@link #register(Class, Class, Supplier, MapperScope)} with the class of the created instances : straightMap and
+	 * reverseMap find the mapper by this class.
+	 *
+	 * @param classA
+	 *            source class of the mapper.
+	 * @param classB
+	 *            destination class of the mapper.
+	 * @param mapperClass
+	 *            the class of the instances returned by the supplier.
+	 * @param mapperSupplier
+	 *            create the instances, it must not return null.
+	 * @param scope
+	 *            how the instances are shared.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @param <M>
+	 *            mapper class
+	 * @return this
+	 */
+	public <A, B, M extends Mapper<A, B>> MapperFactory register(final Class<A> classA,
+			final Class<B> classB,
+			final Class<M> mapperClass,
+			final Supplier<? extends M> mapperSupplier,
+			final MapperScope scope) {
+		Objects.requireNonNull(mapperClass, "Mapper class must be not null.");
+		return this.registerScoped(classA, classB, mapperClass, mapperSupplier, scope);
+	}
+
+	private MapperFactory registerScoped(final Class<?> classA,
+			final Class<?> classB,
+			final Class<? extends Mapper> mapperClass,
+			final Supplier<? extends Mapper> mapperSupplier,
+			final MapperScope scope) {
+		Objects.requireNonNull(scope, "Mapper scope must be not null.");
+		if (scope == MapperScope.SHARED) {
+			return this.registerLazy(classA, classB, mapperClass, mapperSupplier);
+		}
+		if (this.mapperProcessorCreated) {
+			throw new IllegalStateException("You can't register a new mapper after calling build method.");
+		}
+		Objects.requireNonNull(classA, "Source class must be not null.");
+		Objects.requireNonNull(classB, "Destination class must be not null.");
+		Objects.requireNonNull(mapperSupplier, "Null Mapper supplier can't be registered.");
+		this.mappers.add(new MapperRegistration(classA, classB, MapperHolder.of(ScopedMapper.of(mapperSupplier, scope, mapperClass))));
+		return this;
+	}
+
+	/**
+	 * register a unique mapper whose results are kept in a bounded cache, like a mapper annotated with {@link Memoized}.<br>
+	 * Use it only for pure mappings whose destinations are never modified, the cached destinations are shared.
+	 *
+	 * @param customMapper
+	 *            a mapper thant extends from the abstract Mapper.
+	 * @param maximumSize
+	 *            the maximum number of results kept for each direction.
+	 * @param identity
+	 *            true to compare the sources by identity instead of equals and hashCode.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return this
+	 */
+	public <A, B> MapperFactory registerMemoized(final Mapper<A, B> customMapper, final int maximumSize, final boolean identity) {
+		if (this.mapperProcessorCreated) {
+			throw new IllegalStateException("You can't register a new mapper after calling build method.");
+		}
+		Objects.requireNonNull(customMapper, "Null Mapper can't be registered.");
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("maximumSize must be greater than 0.");
+		}
+		final Class<?>[] mapperTypes = ZebraUtils.getMapperTypes(customMapper.getClass());
+		this.mappers.add(new MapperRegistration(mapperTypes[0], mapperTypes[1], MapperHolder.of(MemoizingMapper.memoize(customMapper, maximumSize, identity))));
 		return this;
 	}
 
@@ -69,6 +262,90 @@ public class MapperFactory {
 		return this;
 	}
 
+	/**
+	 * register the mappers of every {@link MapperRegistry} found by the ServiceLoader, like the registries generated for the mappers
+	 * annotated with {@link ZebraMapper}.
+	 *
+	 * @return this
+	 */
+	public MapperFactory registerDiscovered() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		if (classLoader == null) {
+			classLoader = MapperFactory.class.getClassLoader();
+		}
+		for (final MapperRegistry registry : ServiceLoader.load(MapperRegistry.class, classLoader)) {
+			registry.registerMappers(this);
+		}
+		return this;
+	}
+
+	/**
+	 * set the metrics which will receive every mapping call of the built MapperProcessor, for example a
+	 * {@link com.agileasoft.zebra.metrics.MappingStatistics}. Without metrics nothing is measured.
+	 *
+	 * @param mappingMetrics
+	 *            the metrics implementation.
+	 * @return this
+	 */
+	public MapperFactory metrics(final MappingMetrics mappingMetrics) {
+		if (this.mapperProcessorCreated) {
+			throw new IllegalStateException("You can't set the metrics after calling build method.");
+		}
+		this.metrics = Objects.requireNonNull(mappingMetrics, "Null metrics can't be set.");
+		return this;
+	}
+
+	/**
+	 * enable the auto mapping : a pair of classes without registered mapper is mapped by copying the properties with the same name
+	 * and type, from the getters and record components of the source to the setters or record components of the destination.<br>
+	 * The copy plan of a pair is built once at its first mapping and calls the accessors through generated lambdas. A registered
+	 * mapper, in any direction or for a superclass of the source, always wins. A pair without any matching property still throws
+	 * UnsupportedOperationException.
+	 *
+	 * @return this
+	 */
+	public MapperFactory autoMapping() {
+		if (this.mapperProcessorCreated) {
+			throw new IllegalStateException("You can't enable the auto mapping after calling build method.");
+		}
+		this.autoMapping = true;
+		return this;
+	}
+
+	/**
+	 * enable the transitive mapping : a pair of classes without registered mapper is mapped through the shortest chain of registered
+	 * mappers, in any direction. With mappers for Entity to Dto and for ApiModel to Dto, {@code map(entity, ApiModel.class)} calls
+	 * mapAToB of the first one then mapBToA of the second one.<br>
+	 * The chains are found once by build, a mapping only looks them up. Each hop creates its intermediate instance, register a mapper
+	 * for the pair itself to skip them : a registered mapper, in any direction or for a superclass of the source, always wins. Between
+	 * two chains of the same length, the one through the classes registered first is used.
+	 *
+	 * @return this
+	 */
+	public MapperFactory transitiveMapping() {
+		if (this.mapperProcessorCreated) {
+			throw new IllegalStateException("You can't enable the transitive mapping after calling build method.");
+		}
+		this.transitiveMapping = true;
+		return this;
+	}
+
+	/**
+	 * keep the registry of the built MapperProcessor open : mappers can still be added or replaced at runtime with
+	 * {@link MapperProcessor#register(Mapper)}, for example when a plugin is loaded, without building and injecting a new processor.
+	 * <br>
+	 * Each registration publishes a new immutable dispatch table at once, the mappings only read the current one and never wait.
+	 *
+	 * @return this
+	 */
+	public MapperFactory liveRegistry() {
+		if (this.mapperProcessorCreated) {
+			throw new IllegalStateException("You can't enable the live registry after calling build method.");
+		}
+		this.liveRegistry = true;
+		return this;
+	}
+
 	/**
 	 * create a MapperProcessor which will be injected anywhere you want.
 	 *
@@ -78,7 +355,7 @@ public class MapperFactory {
 		if (this.mapperProcessorCreated) {
 			throw new IllegalStateException("build method can be called one time.");
 		}
-		final MapperProcessor mapperProcessor = new MapperProcessor(this.mappers);
+		final MapperProcessor mapperProcessor = new MapperProcessor(this.mappers, this.metrics, this.autoMapping, this.transitiveMapping, this.liveRegistry);
 		this.mappers.clear();
 		this.mapperProcessorCreated = true;
 		return mapperProcessor;
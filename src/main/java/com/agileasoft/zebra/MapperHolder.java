@@ -0,0 +1,156 @@
+package com.agileasoft.zebra;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Give the instance of a registered mapper to the routes of the MapperProcessor.<br>
+ * A mapper registered as an instance is initialized when the MapperProcessor is created. A mapper registered with a supplier is
+ * created and initialized at most once, on its first use, and later calls only read a volatile field. Its class, when given at the
+ * registration, lets straightMap and reverseMap find it without creating it first.
+ *
+ * @author amgohan
+ */
+@SuppressWarnings("rawtypes")
+abstract class MapperHolder {
+
+	/**
+	 * @param mapper
+	 *            an already created mapper.
+	 * @return a holder of this mapper.
+	 */
+	static MapperHolder of(final Mapper mapper) {
+		return new InstanceHolder(mapper);
+	}
+
+	/**
+	 * @param supplier
+	 *            create the mapper on its first use.
+	 * @param mapperClass
+	 *            the class of the created mapper or null if it is unknown.
+	 * @return a holder creating the mapper lazily.
+	 */
+	static MapperHolder lazy(final Supplier<? extends Mapper> supplier, final Class<? extends Mapper> mapperClass) {
+		return new LazyHolder(supplier, mapperClass);
+	}
+
+	/**
+	 * link the holder to its MapperProcessor, an already created mapper is initialized now.
+	 *
+	 * @param processor
+	 *            the MapperProcessor owning the mapper.
+	 */
+	abstract void attach(MapperProcessor processor);
+
+	/**
+	 * @return the mapper, created if needed.
+	 */
+	abstract Mapper get();
+
+	/**
+	 * @return true if the mapper instance exists.
+	 */
+	abstract boolean isCreated();
+
+	/**
+	 * @return the class of the mapper, known without creating it, or null if it is unknown until the mapper is created.
+	 */
+	abstract Class<? extends Mapper> getMapperClass();
+
+	private static final class InstanceHolder extends MapperHolder {
+
+		private final Mapper mapper;
+
+		InstanceHolder(final Mapper mapper) {
+			this.mapper = mapper;
+		}
+
+		@Override
+		void attach(final MapperProcessor processor) {
+			processor.initialize(this.mapper);
+		}
+
+		@Override
+		Mapper get() {
+			return this.mapper;
+		}
+
+		@Override
+		boolean isCreated() {
+			return true;
+		}
+
+		@Override
+		Class<? extends Mapper> getMapperClass() {
+			return this.mapper.getMapperClass();
+		}
+	}
+
+	private static final class LazyHolder extends MapperHolder {
+
+		private final Supplier<? extends Mapper> supplier;
+
+		private final Class<? extends Mapper> mapperClass;
+
+		private MapperProcessor processor;
+
+		private volatile Mapper mapper;
+
+		private boolean creating;
+
+		LazyHolder(final Supplier<? extends Mapper> supplier, final Class<? extends Mapper> mapperClass) {
+			this.supplier = supplier;
+			this.mapperClass = mapperClass;
+		}
+
+		@Override
+		void attach(final MapperProcessor mapperProcessor) {
+			this.processor = mapperProcessor;
+		}
+
+		@Override
+		Mapper get() {
+			final Mapper created = this.mapper;
+			return created != null ? created : this.create();
+		}
+
+		@Override
+		boolean isCreated() {
+			return this.mapper != null;
+		}
+
+		@Override
+		Class<? extends Mapper> getMapperClass() {
+			if (this.mapperClass != null) {
+				return this.mapperClass;
+			}
+			final Mapper created = this.mapper;
+			return created != null ? created.getMapperClass() : null;
+		}
+
+		private synchronized Mapper create() {
+			if (this.mapper == null) {
+				if (this.creating) {
+					throw new IllegalStateException("The lazy mapper is used by its own creation, check the setMapper methods of the mappers.");
+				}
+				this.creating = true;
+				try {
+					final Mapper supplied = Objects.requireNonNull(this.supplier.get(), "The mapper supplier returned null.");
+					if (this.mapperClass != null && !this.mapperClass.isInstance(supplied)) {
+						throw new IllegalStateException("The mapper supplier returned a "
+								+ supplied.getClass().getCanonicalName()
+								+ " which is not a "
+								+ this.mapperClass.getCanonicalName()
+								+ ".");
+					}
+					final Mapper created = MemoizingMapper.memoize(supplied, 0, false);
+					this.processor.initialize(created);
+					this.mapper = created;
+				} finally {
+					this.creating = false;
+				}
+			}
+			return this.mapper;
+		}
+	}
+}
@@ -1,13 +1,31 @@
 package com.agileasoft.zebra;
 
+import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import com.agileasoft.zebra.metrics.MappingMetrics;
 import com.agileasoft.zebra.util.ZebraUtils;
 
 /**
@@ -34,8 +52,31 @@ import com.agileasoft.zebra.util.ZebraUtils;
  */
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class MapperProcessor {
-	private final Map<String, List<Mapper>> mappers;
+
+	/**
+	 * default maximum number of elements mapped sequentially by one task of the parallel methods, smaller lists are not split.
+	 */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+
+	/**
+	 * default maximum number of elements of one list mapped at the same time by the asynchronous methods.
+	 */
+	public static final int DEFAULT_ASYNC_CONCURRENCY = 64;
+
+	// replaced as a whole by a runtime registration, a mapping reads it once.
+	private volatile DispatchTable dispatchTable;
+	private final MappingMetrics metrics;
+	private final boolean autoMapping;
+	private final boolean transitiveMapping;
 	private final Map<Class<? extends Mapper>, Mapper> mappersByClass;
+	// mappers registered with a supplier or at runtime, found by straightMap through the class given at their registration.
+	private final List<MapperHolder> lazyMappers;
+	// the registrations of the current dispatch table, null when the registry is not live. Only read and replaced under the lock.
+	private List<MapperRegistration> liveRegistrations;
+	private final Object registryLock = new Object();
+	private final ThreadLocal<MappingContext> contexts = new ThreadLocal<MappingContext>();
+	// number of mapWithContext calls running in any thread, the thread local is only read when it is not zero.
+	private final AtomicInteger activeContexts = new AtomicInteger();
 
 	/**
 	 * constructor with params.
@@ -48,108 +89,1257 @@ public class MapperProcessor {
 	 *            </ul>
 	 */
 	public MapperProcessor(final Map<String, List<Mapper>> mappers) {
-		Objects.requireNonNull(mappers, "Mappers store must be not null.");
-		this.mappers = new HashMap<String, List<Mapper>>(mappers.size());
-		this.mappersByClass = new HashMap<Class<? extends Mapper>, Mapper>();
-		for (final Entry<String, List<Mapper>> entryMapper : mappers.entrySet()) {
-			for (final Mapper mapper : entryMapper.getValue()) {
-				mapper.setMapper(this);
-				this.mappersByClass.put(mapper.getClass(), mapper);
+		this(toRegistrations(mappers), null, false, false, false);
+	}
+
+	/**
+	 * constructor used by the MapperFactory with mappers already resolved.
+	 *
+	 * @param registrations
+	 *            registered mappers with their source and destination classes.
+	 * @param metrics
+	 *            the metrics receiving every mapping call, null to measure nothing.
+	 * @param autoMapping
+	 *            true to map the pairs of classes without registered mapper by convention.
+	 * @param transitiveMapping
+	 *            true to map the pairs of classes without registered mapper through a chain of registered mappers.
+	 * @param liveRegistry
+	 *            true to accept new mappers after the creation, see {@link #register(Mapper)}.
+	 */
+	MapperProcessor(final List<MapperRegistration> registrations,
+			final MappingMetrics metrics,
+			final boolean autoMapping,
+			final boolean transitiveMapping,
+			final boolean liveRegistry) {
+		this.mappersByClass = new ConcurrentHashMap<Class<? extends Mapper>, Mapper>();
+		this.lazyMappers = new CopyOnWriteArrayList<MapperHolder>();
+		this.metrics = metrics;
+		this.autoMapping = autoMapping;
+		this.transitiveMapping = transitiveMapping;
+		this.liveRegistrations = liveRegistry ? new ArrayList<MapperRegistration>(registrations) : null;
+		this.dispatchTable = new DispatchTable(registrations, metrics, autoMapping, transitiveMapping);
+		// the dispatch table is ready before setMapper, so a mapper can already bind its nested mappings there.
+		for (final MapperRegistration registration : registrations) {
+			registration.holder.attach(this);
+			if (!registration.holder.isCreated()) {
+				this.lazyMappers.add(registration.holder);
+			}
+		}
+	}
+
+	/**
+	 * register a mapper at runtime, the processor must be built with {@link MapperFactory#liveRegistry()}.<br>
+	 * The mapper replaces the mapper registered for the same source and destination classes, if any. A new dispatch table is built
+	 * and published at once : the mappings started before keep the previous table and none of them waits. The mapper is initialized
+	 * by its first use, with the new table already published. The handles already bound keep their mapper.
+	 *
+	 * @param customMapper
+	 *            a mapper thant extends from the abstract Mapper.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return this
+	 */
+	public <A, B> MapperProcessor register(final Mapper<A, B> customMapper) {
+		Objects.requireNonNull(customMapper, "Null Mapper can't be registered.");
+		final Class<?>[] mapperTypes = ZebraUtils.getMapperTypes(customMapper.getClass());
+		return this.register((Class<A>) mapperTypes[0], (Class<B>) mapperTypes[1], customMapper);
+	}
+
+	/**
+	 * Same as {@link #register(Mapper)} with the already known classes of the mapper, no reflection is used to resolve them.
+	 *
+	 * @param classA
+	 *            source class of the mapper.
+	 * @param classB
+	 *            destination class of the mapper.
+	 * @param customMapper
+	 *            a mapper thant extends from the abstract Mapper.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return this
+	 */
+	public <A, B> MapperProcessor register(final Class<A> classA, final Class<B> classB, final Mapper<A, B> customMapper) {
+		Objects.requireNonNull(classA, "Source class must be not null.");
+		Objects.requireNonNull(classB, "Destination class must be not null.");
+		Objects.requireNonNull(customMapper, "Null Mapper can't be registered.");
+		final MapperRegistration registration = new MapperRegistration(classA, classB, MapperHolder.lazy(() -> customMapper, customMapper.getMapperClass()));
+		registration.holder.attach(this);
+		synchronized (this.registryLock) {
+			if (this.liveRegistrations == null) {
+				throw new IllegalStateException("You can't register a new mapper after calling build method without MapperFactory.liveRegistry().");
+			}
+			final List<MapperRegistration> registrations = new ArrayList<MapperRegistration>(this.liveRegistrations.size() + 1);
+			final List<MapperRegistration> replaced = new ArrayList<MapperRegistration>(1);
+			for (final MapperRegistration current : this.liveRegistrations) {
+				if (current.sourceClass == classA && current.destinationClass == classB) {
+					replaced.add(current);
+				} else {
+					registrations.add(current);
+				}
 			}
-			this.mappers.put(entryMapper.getKey(), entryMapper.getValue());
+			registrations.add(registration);
+			this.lazyMappers.add(registration.holder);
+			this.dispatchTable = new DispatchTable(registrations, this.metrics, this.autoMapping, this.transitiveMapping);
+			this.liveRegistrations = registrations;
+			for (final MapperRegistration old : replaced) {
+				this.lazyMappers.remove(old.holder);
+				if (old.holder.isCreated()) {
+					final Mapper oldMapper = old.holder.get();
+					if (oldMapper.getMapperClass() != null) {
+						this.mappersByClass.remove(oldMapper.getMapperClass(), oldMapper);
+					}
+				}
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * give this processor to a created mapper and make it available to straightMap and reverseMap.
+	 *
+	 * @param mapper
+	 *            the created mapper.
+	 */
+	void initialize(final Mapper mapper) {
+		mapper.setMapper(this);
+		final Class<? extends Mapper> mapperClass = mapper.getMapperClass();
+		// a scoped mapper registered without its class can't be found by straightMap.
+		if (mapperClass != null) {
+			this.mappersByClass.put(mapperClass, mapper);
 		}
 	}
 
 	/**
 	 * This method map the source object to an instance of destination Type.<br>
-	 * A mapper of this objects must already registred. If not an exception will be thrown.
+	 * A mapper of this objects must already registred. If not an exception will be thrown.<br>
+	 * When no mapper is registered for the runtime class of the source (a proxy or a subclass), the mapper of its most specific
+	 * registered superclass or interface is used. When there is none and the auto mapping is enabled, the properties with the same
+	 * name and type are copied, see {@link MapperFactory#autoMapping()}.
+	 *
+	 * @param sourceObject
+	 *            the source instance of type A.
+	 * @param destinationClass
+	 *            the returned type of instance.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return instance of type B.
+	 */
+	public <A, B> B map(final A sourceObject, final Class<B> destinationClass) {
+
+		if (sourceObject == null) {
+			return null;
+		}
+
+		Objects.requireNonNull(destinationClass, "Destination Class Type must be not null.");
+
+		if (this.activeContexts.get() != 0) {
+			final MappingContext context = this.contexts.get();
+			if (context != null) {
+				final B alreadyMapped = context.get(sourceObject, destinationClass);
+				if (alreadyMapped != null) {
+					return alreadyMapped;
+				}
+				final B destination;
+				context.enter(sourceObject);
+				try {
+					destination = this.route(sourceObject, destinationClass);
+				} finally {
+					context.exit();
+				}
+				context.put(sourceObject, destinationClass, destination);
+				return destination;
+			}
+		}
+		return this.route(sourceObject, destinationClass);
+	}
+
+	/**
+	 * Same as {@link #map(Object, Class)} but every source instance is mapped only once during this call.<br>
+	 * All map calls made by the mappers while this call runs, like {@code this.mapper.map(order.getCustomer(), CustomerDto.class)},
+	 * share the same identity context : a source instance already mapped to the wanted type returns the same destination instance,
+	 * so shared references stay shared. To support cycles, a mapper must call {@link #remember(Object, Object)} with its new
+	 * destination before mapping its children. Bound handles, straightMap and reverseMap don't use the context.
+	 *
+	 * @param sourceObject
+	 *            the source instance of type A.
+	 * @param destinationClass
+	 *            the returned type of instance.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return instance of type B.
+	 */
+	public <A, B> B mapWithContext(final A sourceObject, final Class<B> destinationClass) {
+		return this.inContext(() -> this.map(sourceObject, destinationClass));
+	}
+
+	/**
+	 * Same as {@link #map(List, Class)} with one identity context for the whole list, see {@link #mapWithContext(Object, Class)}.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
+	 * @param destinationClass
+	 *            the wanted type of destination list.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return List of type B.
+	 */
+	public <A, B> List<B> mapWithContext(final List<A> sourceList, final Class<B> destinationClass) {
+		return this.inContext(() -> this.map(sourceList, destinationClass));
+	}
+
+	/**
+	 * Keep the destination mapped from the source instance in the current identity context.<br>
+	 * A mapper calls it with its new destination before mapping the children of the source, so a back reference to the source
+	 * returns this destination instead of mapping the source again. The destination is kept for its class, so it is returned to the
+	 * mappings of the source to this class or to one of its superclasses. Does nothing outside of mapWithContext.
+	 *
+	 * @param sourceObject
+	 *            the source instance being mapped.
+	 * @param destinationObject
+	 *            its destination instance.
+	 */
+	public void remember(final Object sourceObject, final Object destinationObject) {
+		if (this.activeContexts.get() != 0) {
+			final MappingContext context = this.contexts.get();
+			if (context != null) {
+				Objects.requireNonNull(destinationObject, "Destination object must be not null.");
+				context.put(sourceObject, destinationObject.getClass(), destinationObject);
+			}
+		}
+	}
+
+	/**
+	 * Map the source object and keep what is needed to map again only the parts of the graph that change.<br>
+	 * The mapping is done like {@link #mapWithContext(Object, Class)}, then the returned {@link IncrementalMapping} keeps the
+	 * destination of every source instance and the sources whose mapping mapped it. See {@link IncrementalMapping#refresh()}.
+	 *
+	 * @param sourceObject
+	 *            the root of the source graph.
+	 * @param destinationClass
+	 *            the returned type of instance.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return the incremental mapping of the graph.
+	 */
+	public <A, B> IncrementalMapping<A, B> mapIncremental(final A sourceObject, final Class<B> destinationClass) {
+		Objects.requireNonNull(sourceObject, "Source object must be not null.");
+		Objects.requireNonNull(destinationClass, "Destination Class Type must be not null.");
+		final MappingContext context = new MappingContext(true);
+		final B destination = this.inContext(context, () -> this.map(sourceObject, destinationClass));
+		return new IncrementalMapping<A, B>(this, context, sourceObject, destinationClass, destination);
+	}
+
+	private <T> T inContext(final Supplier<T> mapping) {
+		if (this.contexts.get() != null) {
+			return mapping.get();
+		}
+		return this.inContext(new MappingContext(), mapping);
+	}
+
+	/**
+	 * run the mapping with the given context, the context of the current thread is restored after.
+	 */
+	<T> T inContext(final MappingContext context, final Supplier<T> mapping) {
+		final MappingContext previous = this.contexts.get();
+		this.contexts.set(context);
+		this.activeContexts.incrementAndGet();
+		try {
+			return mapping.get();
+		} finally {
+			this.activeContexts.decrementAndGet();
+			if (previous == null) {
+				this.contexts.remove();
+			} else {
+				this.contexts.set(previous);
+			}
+		}
+	}
+
+	private <B> B route(final Object sourceObject, final Class<B> destinationClass) {
+		return (B) this.findRoute(sourceObject.getClass(), destinationClass).map(sourceObject);
+	}
+
+	private MappingRoute findRoute(final Class<?> sourceClass, final Class<?> destinationClass) {
+		return this.findRoute(this.dispatchTable, sourceClass, destinationClass);
+	}
+
+	private MappingRoute findRoute(final DispatchTable table, final Class<?> sourceClass, final Class<?> destinationClass) {
+		MappingRoute route = table.get(sourceClass, destinationClass);
+		if (route == null) {
+			route = table.getConvention(sourceClass, destinationClass);
+			if (route == null) {
+				throw this.noMapperDefined(sourceClass, destinationClass);
+			}
+		}
+		return route;
+	}
+
+	/**
+	 * This method map the source object into an existing destination instead of creating a new one.<br>
+	 * The mapper is found like {@link #map(Object, Class)} with the class of the destination (or its nearest registered superclass),
+	 * and must implement the optional mapAToB(source, destination) or mapBToA(source, destination).
 	 *
 	 * @param sourceObject
 	 *            the source instance of type A.
+	 * @param destinationObject
+	 *            the existing instance of type B to update.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return the updated instance of type B or null if the source is null.
+	 */
+	public <A, B> B mapInto(final A sourceObject, final B destinationObject) {
+		if (sourceObject == null) {
+			return null;
+		}
+		Objects.requireNonNull(destinationObject, "Destination object must be not null.");
+		return (B) this.findRouteInto(sourceObject.getClass(), destinationObject.getClass()).mapInto(sourceObject, destinationObject);
+	}
+
+	/**
+	 * find the route from the source class to a destination class, the class of an existing destination or the type it was mapped
+	 * to, or to its nearest registered superclass.
+	 */
+	MappingRoute findRouteInto(final Class<?> sourceClass, final Class<?> destinationClass) {
+		final DispatchTable table = this.dispatchTable;
+		for (Class<?> type = destinationClass; type != null; type = type.getSuperclass()) {
+			final MappingRoute route = table.get(sourceClass, type);
+			if (route != null) {
+				return route;
+			}
+		}
+		final MappingRoute conventionRoute = table.getConvention(sourceClass, destinationClass);
+		if (conventionRoute != null) {
+			return conventionRoute;
+		}
+		throw this.noMapperDefined(sourceClass, destinationClass);
+	}
+
+	/**
+	 * This method map a list of objects A into an existing list of objects B, reusing its elements by position.<br>
+	 * The element at index i of the destination list is updated from the element at index i of the source list, a missing or null
+	 * destination element is mapped as new, and the destination elements after the end of the source list are removed.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
+	 * @param destinationList
+	 *            the existing list of objects B to update.
+	 * @param destinationClass
+	 *            the type of destination elements.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return the updated destination list or null if the source list is null.
+	 */
+	public <A, B> List<B> mapInto(final List<A> sourceList, final List<B> destinationList, final Class<B> destinationClass) {
+		if (sourceList == null) {
+			return null;
+		}
+		Objects.requireNonNull(destinationList, "Destination list must be not null.");
+		Objects.requireNonNull(destinationClass, "Destination Class Type must be not null.");
+		final ListIterator<B> destinationIterator = destinationList.listIterator();
+		for (final A a : sourceList) {
+			if (!destinationIterator.hasNext()) {
+				destinationIterator.add(this.map(a, destinationClass));
+				continue;
+			}
+			final B b = destinationIterator.next();
+			if (a == null) {
+				destinationIterator.set(null);
+			} else if (b == null) {
+				destinationIterator.set(this.map(a, destinationClass));
+			} else {
+				final Object updated = this.findRoute(a.getClass(), destinationClass).mapInto(a, b);
+				if (updated != b) {
+					destinationIterator.set((B) updated);
+				}
+			}
+		}
+		if (destinationIterator.hasNext()) {
+			destinationList.subList(sourceList.size(), destinationList.size()).clear();
+		}
+		return destinationList;
+	}
+
+	/**
+	 * Resolve once the mapper and the direction used to map sourceClass to destinationClass.<br>
+	 * The returned handle skips the lookup done by {@link #map(Object, Class)} on every call, keep it for hot call sites.
+	 *
+	 * @param sourceClass
+	 *            the class of the source instances, a registered superclass or interface is used if there is no mapper for it.
+	 * @param destinationClass
+	 *            the wanted type.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return the resolved handle.
+	 * @throws UnsupportedOperationException
+	 *             if no mapper is registered for this pair in any direction.
+	 * @throws IllegalStateException
+	 *             if more than one mapper is registered for this pair.
+	 */
+	public <A, B> MappingHandle<A, B> bind(final Class<A> sourceClass, final Class<B> destinationClass) {
+		Objects.requireNonNull(sourceClass, "Source Class Type must be not null.");
+		Objects.requireNonNull(destinationClass, "Destination Class Type must be not null.");
+		return new MappingHandle<A, B>(this.findRoute(sourceClass, destinationClass), this.metrics);
+	}
+
+	/**
+	 * This method map a List of objects A to a list of objects B.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
+	 * @param destinationClass
+	 *            the wanted type of destination list.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return List of type B.
+	 */
+	public <A, B> List<B> map(final List<A> sourceList, final Class<B> destinationClass) {
+		if (sourceList == null) {
+			return null;
+		}
+		final BatchMapper batchMapper = this.batchMapper(destinationClass);
+		final List<B> returnList = new ArrayList<B>(sourceList.size());
+		batchMapper.begin();
+		try {
+			for (final A a : sourceList) {
+				returnList.add((B) batchMapper.apply(a));
+			}
+		} finally {
+			batchMapper.end();
+		}
+		return returnList;
+	}
+
+	/**
+	 * This method map a Set of objects A to a Set of objects B.<br>
+	 * The returned set is a LinkedHashSet keeping the iteration order of the source, created with a capacity that will not be
+	 * resized. Two elements mapped to equal objects give one element.
+	 *
+	 * @param sourceSet
+	 *            set of objects A.
+	 * @param destinationClass
+	 *            the wanted type of destination set.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return Set of type B.
+	 */
+	public <A, B> Set<B> map(final Set<A> sourceSet, final Class<B> destinationClass) {
+		if (sourceSet == null) {
+			return null;
+		}
+		return this.fillCollection(sourceSet, destinationClass, new LinkedHashSet<B>(CollectionFactories.hashCapacity(sourceSet.size())));
+	}
+
+	/**
+	 * This method map an array of objects A to a new array of objects B, without any intermediate list.
+	 *
+	 * @param sourceArray
+	 *            array of objects A.
+	 * @param destinationClass
+	 *            the type of the elements of the returned array.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return array of type B with the length of the source array.
+	 */
+	public <A, B> B[] mapArray(final A[] sourceArray, final Class<B> destinationClass) {
+		if (sourceArray == null) {
+			return null;
+		}
+		final BatchMapper batchMapper = this.batchMapper(destinationClass);
+		final B[] returnArray = (B[]) Array.newInstance(destinationClass, sourceArray.length);
+		batchMapper.begin();
+		try {
+			for (int i = 0; i < sourceArray.length; i++) {
+				returnArray[i] = (B) batchMapper.apply(sourceArray[i]);
+			}
+		} finally {
+			batchMapper.end();
+		}
+		return returnArray;
+	}
+
+	/**
+	 * This method map the values of a Map, the keys are kept.<br>
+	 * The returned map is a LinkedHashMap keeping the iteration order of the source, created with a capacity that will not be
+	 * resized.
+	 *
+	 * @param sourceMap
+	 *            map of objects A.
+	 * @param destinationClass
+	 *            the wanted type of the values.
+	 * @param <K>
+	 *            key class
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return Map of values of type B.
+	 */
+	public <K, A, B> Map<K, B> mapValues(final Map<K, A> sourceMap, final Class<B> destinationClass) {
+		return this.mapValues(sourceMap, destinationClass, size -> new LinkedHashMap<K, B>(CollectionFactories.hashCapacity(size)));
+	}
+
+	/**
+	 * This method map the values of a Map into a map created by the given factory, the keys are kept.<br>
+	 * For example {@code mapper.mapValues(usersById, UserDto.class, size -> new TreeMap<>())}.
+	 *
+	 * @param sourceMap
+	 *            map of objects A.
+	 * @param destinationClass
+	 *            the wanted type of the values.
+	 * @param mapFactory
+	 *            create the destination map from the size of the source map.
+	 * @param <K>
+	 *            key class
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @param <M>
+	 *            the wanted map implementation type
+	 * @return Map of values of type B.
+	 */
+	public <K, A, B, M extends Map<K, B>> M mapValues(final Map<K, A> sourceMap, final Class<B> destinationClass, final IntFunction<M> mapFactory) {
+		if (sourceMap == null) {
+			return null;
+		}
+		Objects.requireNonNull(mapFactory, "mapFactory must be not null.");
+		final BatchMapper batchMapper = this.batchMapper(destinationClass);
+		final M returnMap = mapFactory.apply(sourceMap.size());
+		batchMapper.begin();
+		try {
+			for (final Map.Entry<K, A> entry : sourceMap.entrySet()) {
+				returnMap.put(entry.getKey(), (B) batchMapper.apply(entry.getValue()));
+			}
+		} finally {
+			batchMapper.end();
+		}
+		return returnMap;
+	}
+
+	/**
+	 * This method map the keys and the values of a Map.<br>
+	 * The returned map is a LinkedHashMap keeping the iteration order of the source, created with a capacity that will not be
+	 * resized. Two keys mapped to equal objects give one entry, the last one wins.
+	 *
+	 * @param sourceMap
+	 *            map of objects A by keys of type KA.
+	 * @param keyClass
+	 *            the wanted type of the keys.
+	 * @param destinationClass
+	 *            the wanted type of the values.
+	 * @param <KA>
+	 *            source key class
+	 * @param <KB>
+	 *            destination key class
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return Map of values of type B by keys of type KB.
+	 */
+	public <KA, KB, A, B> Map<KB, B> mapEntries(final Map<KA, A> sourceMap, final Class<KB> keyClass, final Class<B> destinationClass) {
+		if (sourceMap == null) {
+			return null;
+		}
+		final BatchMapper keyMapper = this.batchMapper(keyClass);
+		final BatchMapper valueMapper = this.batchMapper(destinationClass);
+		// the keys then the values, so each batch is recorded on its own.
+		final Object[] keys = new Object[sourceMap.size()];
+		int i = 0;
+		keyMapper.begin();
+		try {
+			for (final KA key : sourceMap.keySet()) {
+				keys[i++] = keyMapper.apply(key);
+			}
+		} finally {
+			keyMapper.end();
+		}
+		final Map<KB, B> returnMap = new LinkedHashMap<KB, B>(CollectionFactories.hashCapacity(keys.length));
+		i = 0;
+		valueMapper.begin();
+		try {
+			for (final A value : sourceMap.values()) {
+				returnMap.put((KB) keys[i++], (B) valueMapper.apply(value));
+			}
+		} finally {
+			valueMapper.end();
+		}
+		return returnMap;
+	}
+
+	/**
+	 * Same as {@link #map(List, Class)} but the elements are mapped in parallel by the common fork join pool.<br>
+	 * Lists not bigger than {@link #DEFAULT_PARALLEL_THRESHOLD} are mapped sequentially.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
+	 * @param destinationClass
+	 *            the wanted type of destination list.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return List of type B in the order of the source list, its size can't be changed.
+	 */
+	public <A, B> List<B> mapParallel(final List<A> sourceList, final Class<B> destinationClass) {
+		return this.mapParallel(sourceList, destinationClass, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Same as {@link #map(List, Class)} but the elements are mapped in parallel by the given pool.<br>
+	 * The list is split until a part is not bigger than the threshold, each part is written directly at its indexes of the result, so
+	 * the order is kept without merging. Lists not bigger than the threshold are mapped sequentially.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
+	 * @param destinationClass
+	 *            the wanted type of destination list.
+	 * @param pool
+	 *            the fork join pool running the mapping.
+	 * @param threshold
+	 *            maximum number of elements mapped sequentially by one task.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return List of type B in the order of the source list, its size can't be changed.
+	 */
+	public <A, B> List<B> mapParallel(final List<A> sourceList, final Class<B> destinationClass, final ForkJoinPool pool, final int threshold) {
+		if (sourceList == null) {
+			return null;
+		}
+		Objects.requireNonNull(destinationClass, "destinationClass must be not null.");
+		checkParallelParameters(pool, threshold);
+		if (sourceList.size() <= threshold) {
+			return this.map(sourceList, destinationClass);
+		}
+		final MappingEvent event = MappingRecording.start();
+		try {
+			// each range is a batch recorded by its own metrics, the whole list gives one event.
+			return (List<B>) Arrays.asList(ParallelMapping.map(sourceList, (source, result, from, to) -> {
+				final BatchMapper batchMapper = new BatchMapper(destinationClass, null, false);
+				batchMapper.begin();
+				try {
+					for (int i = from; i < to; i++) {
+						result[i] = batchMapper.apply(source.get(i));
+					}
+				} finally {
+					batchMapper.end();
+				}
+			}, pool, threshold));
+		} finally {
+			this.finishEvent(event, sourceList, destinationClass);
+		}
+	}
+
+	/**
+	 * This method map an array of primitive int to a new array of objects B.<br>
+	 * The mapper registered for Integer and B is resolved once, an IntToObjMapper is called through mapInt without boxing any value,
+	 * another mapper gets each value boxed.
+	 *
+	 * @param values
+	 *            array of int values.
+	 * @param destinationClass
+	 *            the type of the elements of the returned array.
+	 * @param <B>
+	 *            destination class
+	 * @return array of type B with the length of the source array.
+	 */
+	public <B> B[] mapInts(final int[] values, final Class<B> destinationClass) {
+		if (values == null) {
+			return null;
+		}
+		Objects.requireNonNull(destinationClass, "Destination Class Type must be not null.");
+		return this.mapFromPrimitives(Integer.class, values, values.length, i -> Integer.valueOf(values[i]), destinationClass);
+	}
+
+	/**
+	 * This method map a list of objects B to an array of primitive int.<br>
+	 * The mapper registered for B and Integer is resolved once, an IntToObjMapper is called through mapToInt without boxing any value,
+	 * another mapper returns boxed values.
+	 *
+	 * @param sourceList
+	 *            list of objects B, without null element.
+	 * @param sourceClass
+	 *            the type of the elements of the source list.
+	 * @param <B>
+	 *            source class
+	 * @return array of int values with the size of the source list.
+	 */
+	public <B> int[] mapToInts(final List<B> sourceList, final Class<B> sourceClass) {
+		if (sourceList == null) {
+			return null;
+		}
+		Objects.requireNonNull(sourceClass, "Source Class Type must be not null.");
+		final int[] returnArray = new int[sourceList.size()];
+		return this.mapToPrimitives(sourceList, sourceClass, Integer.class, returnArray, (number, i) -> returnArray[i] = number.intValue(), "int");
+	}
+
+	/**
+	 * This method map an array of primitive long to a new array of objects B.<br>
+	 * The mapper registered for Long and B is resolved once, an LongToObjMapper is called through mapLong without boxing any value,
+	 * another mapper gets each value boxed.
+	 *
+	 * @param values
+	 *            array of long values.
+	 * @param destinationClass
+	 *            the type of the elements of the returned array.
+	 * @param <B>
+	 *            destination class
+	 * @return array of type B with the length of the source array.
+	 */
+	public <B> B[] mapLongs(final long[] values, final Class<B> destinationClass) {
+		if (values == null) {
+			return null;
+		}
+		Objects.requireNonNull(destinationClass, "Destination Class Type must be not null.");
+		return this.mapFromPrimitives(Long.class, values, values.length, i -> Long.valueOf(values[i]), destinationClass);
+	}
+
+	/**
+	 * This method map a list of objects B to an array of primitive long.<br>
+	 * The mapper registered for B and Long is resolved once, an LongToObjMapper is called through mapToLong without boxing any value,
+	 * another mapper returns boxed values.
+	 *
+	 * @param sourceList
+	 *            list of objects B, without null element.
+	 * @param sourceClass
+	 *            the type of the elements of the source list.
+	 * @param <B>
+	 *            source class
+	 * @return array of long values with the size of the source list.
+	 */
+	public <B> long[] mapToLongs(final List<B> sourceList, final Class<B> sourceClass) {
+		if (sourceList == null) {
+			return null;
+		}
+		Objects.requireNonNull(sourceClass, "Source Class Type must be not null.");
+		final long[] returnArray = new long[sourceList.size()];
+		return this.mapToPrimitives(sourceList, sourceClass, Long.class, returnArray, (number, i) -> returnArray[i] = number.longValue(), "long");
+	}
+
+	/**
+	 * This method map an array of primitive double to a new array of objects B.<br>
+	 * The mapper registered for Double and B is resolved once, an DoubleToObjMapper is called through mapDouble without boxing any value,
+	 * another mapper gets each value boxed.
+	 *
+	 * @param values
+	 *            array of double values.
+	 * @param destinationClass
+	 *            the type of the elements of the returned array.
+	 * @param <B>
+	 *            destination class
+	 * @return array of type B with the length of the source array.
+	 */
+	public <B> B[] mapDoubles(final double[] values, final Class<B> destinationClass) {
+		if (values == null) {
+			return null;
+		}
+		Objects.requireNonNull(destinationClass, "Destination Class Type must be not null.");
+		return this.mapFromPrimitives(Double.class, values, values.length, i -> Double.valueOf(values[i]), destinationClass);
+	}
+
+	/**
+	 * This method map a list of objects B to an array of primitive double.<br>
+	 * The mapper registered for B and Double is resolved once, an DoubleToObjMapper is called through mapToDouble without boxing any value,
+	 * another mapper returns boxed values.
+	 *
+	 * @param sourceList
+	 *            list of objects B, without null element.
+	 * @param sourceClass
+	 *            the type of the elements of the source list.
+	 * @param <B>
+	 *            source class
+	 * @return array of double values with the size of the source list.
+	 */
+	public <B> double[] mapToDoubles(final List<B> sourceList, final Class<B> sourceClass) {
+		if (sourceList == null) {
+			return null;
+		}
+		Objects.requireNonNull(sourceClass, "Source Class Type must be not null.");
+		final double[] returnArray = new double[sourceList.size()];
+		return this.mapToPrimitives(sourceList, sourceClass, Double.class, returnArray, (number, i) -> returnArray[i] = number.doubleValue(), "double");
+	}
+
+	/**
+	 * map a batch of primitive values, or of objects to primitive values, with the route from sourceClass to destinationClass
+	 * resolved once, and record it as one call.<br>
+	 * A scoped mapper lends one instance to the whole batch, so the primitive methods of a registered PrimitiveToObjMapper are called
+	 * without boxing. A memoized mapper is called with boxed values through its
+	 * cache, whose keys are objects.
+	 */
+	private <T> T mapPrimitives(final Class<?> sourceClass, final Class<?> destinationClass, final int elements, final PrimitiveMapping<T> mapping) {
+		final MappingRoute route = this.findRoute(sourceClass, destinationClass);
+		final Mapper mapper = route.getMapper();
+		final MappingEvent event = MappingRecording.start();
+		final long start = this.metrics == null ? 0 : System.nanoTime();
+		final Mapper instance = mapper instanceof ScopedMapper ? ((ScopedMapper) mapper).acquire() : mapper;
+		try {
+			return mapping.map(instance, route.isReverse());
+		} finally {
+			if (instance != mapper) {
+				((ScopedMapper) mapper).release(instance);
+			}
+			this.record(mapper, event, route.getDirection(), elements, start);
+		}
+	}
+
+	/**
+	 * map an array of primitive values, a PrimitiveToObjMapper called in its direction reads each element without boxing it.
+	 */
+	private <B> B[] mapFromPrimitives(final Class<?> boxedClass,
+			final Object values,
+			final int length,
+			final IntFunction<Object> boxing,
+			final Class<B> destinationClass) {
+		return this.mapPrimitives(boxedClass, destinationClass, length, (mapper, reverse) -> {
+			final B[] returnArray = (B[]) Array.newInstance(destinationClass, length);
+			// a route from the wrapper class and not reversed is only served by the PrimitiveToObjMapper of this primitive type.
+			if (!reverse && mapper instanceof PrimitiveToObjMapper) {
+				final PrimitiveToObjMapper<?, B> primitiveMapper = (PrimitiveToObjMapper<?, B>) mapper;
+				for (int i = 0; i < length; i++) {
+					returnArray[i] = primitiveMapper.mapElement(values, i);
+				}
+			} else {
+				for (int i = 0; i < length; i++) {
+					returnArray[i] = (B) callBoxed(mapper, reverse, boxing.apply(i));
+				}
+			}
+			return returnArray;
+		});
+	}
+
+	/**
+	 * map a list of objects into an array of primitive values, a reversed PrimitiveToObjMapper writes each element without boxing it.
+	 */
+	private <B, T> T mapToPrimitives(final List<B> sourceList,
+			final Class<B> sourceClass,
+			final Class<?> boxedClass,
+			final T returnArray,
+			final ObjIntConsumer<Number> unboxing,
+			final String primitiveType) {
+		return this.mapPrimitives(sourceClass, boxedClass, sourceList.size(), (mapper, reverse) -> {
+			final String nullMessage = "A null element can't be mapped to a " + primitiveType + ".";
+			int i = 0;
+			if (reverse && mapper instanceof PrimitiveToObjMapper) {
+				final PrimitiveToObjMapper<?, B> primitiveMapper = (PrimitiveToObjMapper<?, B>) mapper;
+				for (final B b : sourceList) {
+					primitiveMapper.mapToElement(Objects.requireNonNull(b, nullMessage), returnArray, i++);
+				}
+			} else {
+				for (final B b : sourceList) {
+					unboxing.accept((Number) callBoxed(mapper, reverse, Objects.requireNonNull(b, nullMessage)), i++);
+				}
+			}
+			return returnArray;
+		});
+	}
+
+	private static Object callBoxed(final Mapper mapper, final boolean reverse, final Object source) {
+		return reverse ? mapper.mapBToA(source) : mapper.mapAToB(source);
+	}
+
+	/**
+	 * the loop of a primitive batch method, given the mapper instance to call and its direction.
+	 */
+	private interface PrimitiveMapping<T> {
+
+		T map(Mapper mapper, boolean reverse);
+	}
+
+	/**
+	 * Same as {@link #map(Object, Class)} but the mapping runs asynchronously on the default executor : one virtual thread per task
+	 * when the JVM supports them, else a cached pool of daemon threads. Use it for mappers waiting on blocking calls.
+	 *
+	 * @param sourceObject
+	 *            the source instance of type A.
+	 * @param destinationClass
+	 *            the returned type of instance.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return a future of the instance of type B.
+	 */
+	public <A, B> CompletableFuture<B> mapAsync(final A sourceObject, final Class<B> destinationClass) {
+		return this.mapAsync(sourceObject, destinationClass, AsyncMapping.defaultExecutor());
+	}
+
+	/**
+	 * Same as {@link #map(Object, Class)} but the mapping runs asynchronously on the given executor. The identity context of
+	 * mapWithContext is not shared with the executor threads.
+	 *
+	 * @param sourceObject
+	 *            the source instance of type A.
+	 * @param destinationClass
+	 *            the returned type of instance.
+	 * @param executor
+	 *            the executor running the mapping.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return a future of the instance of type B.
+	 */
+	public <A, B> CompletableFuture<B> mapAsync(final A sourceObject, final Class<B> destinationClass, final Executor executor) {
+		Objects.requireNonNull(destinationClass, "Destination Class Type must be not null.");
+		Objects.requireNonNull(executor, "executor must be not null.");
+		return CompletableFuture.supplyAsync(() -> this.map(sourceObject, destinationClass), executor);
+	}
+
+	/**
+	 * Same as {@link #map(List, Class)} but the elements are mapped asynchronously on the default executor, at most
+	 * {@link #DEFAULT_ASYNC_CONCURRENCY} at the same time.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
+	 * @param destinationClass
+	 *            the wanted type of destination list.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return a future of the List of type B in the order of the source list, its size can't be changed.
+	 */
+	public <A, B> CompletableFuture<List<B>> mapAsync(final List<A> sourceList, final Class<B> destinationClass) {
+		return this.mapAsync(sourceList, destinationClass, AsyncMapping.defaultExecutor(), DEFAULT_ASYNC_CONCURRENCY);
+	}
+
+	/**
+	 * Same as {@link #map(List, Class)} but the elements are mapped asynchronously on the given executor.<br>
+	 * At most maxConcurrency tasks are submitted for the list, each one maps the next element not yet mapped, so the waits of
+	 * blocking mappers overlap without flooding the executor. The source list is copied before this method returns, the first
+	 * failure completes the future exceptionally.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
+	 * @param destinationClass
+	 *            the wanted type of destination list.
+	 * @param executor
+	 *            the executor running the mapping.
+	 * @param maxConcurrency
+	 *            maximum number of elements mapped at the same time.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return a future of the List of type B in the order of the source list, its size can't be changed.
+	 */
+	public <A, B> CompletableFuture<List<B>> mapAsync(final List<A> sourceList, final Class<B> destinationClass, final Executor executor, final int maxConcurrency) {
+		Objects.requireNonNull(executor, "executor must be not null.");
+		if (maxConcurrency < 1) {
+			throw new IllegalArgumentException("maxConcurrency must be greater than 0.");
+		}
+		if (sourceList == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		final CompletableFuture<?> future = AsyncMapping.map(sourceList, this.elementMapper(destinationClass), executor, maxConcurrency);
+		return (CompletableFuture<List<B>>) future;
+	}
+
+	/**
+	 * Same as {@link #mapFlow(Class, int)} with each element mapped as soon as it is received.
+	 *
+	 * @param destinationClass
+	 *            the wanted type of the published elements.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return a new processor, to subscribe to one publisher and to be subscribed by one subscriber.
+	 */
+	public <A, B> Flow.Processor<A, B> mapFlow(final Class<B> destinationClass) {
+		return this.mapFlow(destinationClass, 1);
+	}
+
+	/**
+	 * Return a processor publishing each element of its publisher mapped to the destination class.<br>
+	 * The demand of the subscriber is forwarded to the publisher, so the elements are received and mapped only when they are
+	 * requested and the stream is never buffered. When batchSize is greater than 1, up to batchSize requested elements are kept and
+	 * mapped together, resolving the route once per runtime class for the whole batch, a partial batch is mapped when every
+	 * requested element is received or when the publisher completes. With an unbounded demand (Long.MAX_VALUE), a partial batch of a
+	 * slow publisher is not flushed when it is idle : its elements wait until the batch is full or the publisher completes, use a
+	 * batchSize of 1 or a bounded demand when the latency matters. The mapping runs on the thread of the publisher, a mapping
+	 * failure cancels the publisher and is given to the subscriber.
+	 *
+	 * @param destinationClass
+	 *            the wanted type of the published elements.
+	 * @param batchSize
+	 *            maximum number of elements mapped together.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return a new processor, to subscribe to one publisher and to be subscribed by one subscriber.
+	 */
+	public <A, B> Flow.Processor<A, B> mapFlow(final Class<B> destinationClass, final int batchSize) {
+		Objects.requireNonNull(destinationClass, "Destination Class Type must be not null.");
+		return new MappingFlowProcessor<A, B>(new BatchMapper(destinationClass, null), batchSize);
+	}
+
+	/**
+	 * Return a read only view of the source list where each element is mapped only when it is read.<br>
+	 * Nothing is mapped up front : the elements that are never read cost nothing. An element read twice is mapped twice, use
+	 * {@link #mapLazy(List, Class, boolean)} to keep the mapped elements.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
+	 * @param destinationClass
+	 *            the wanted type of destination list.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return a lazy List of type B.
+	 */
+	public <A, B> List<B> mapLazy(final List<A> sourceList, final Class<B> destinationClass) {
+		return this.mapLazy(sourceList, destinationClass, false);
+	}
+
+	/**
+	 * Return a read only view of the source list where each element is mapped only when it is read.<br>
+	 * When memoize is true, an element is mapped once at its first read and the same instance is returned after, the size of the
+	 * source list must not change while the view is used. The elements of a source list without random access, like a LinkedList,
+	 * are copied once by the memoized view so reading them by index stays cheap. The memoized view is not thread safe.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
+	 * @param destinationClass
+	 *            the wanted type of destination list.
+	 * @param memoize
+	 *            true to keep the mapped elements.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return a lazy List of type B.
+	 */
+	public <A, B> List<B> mapLazy(final List<A> sourceList, final Class<B> destinationClass, final boolean memoize) {
+		if (sourceList == null) {
+			return null;
+		}
+		return LazyMappedList.of(sourceList, this.elementMapper(destinationClass), memoize);
+	}
+
+	/**
+	 * Return an iterator that maps each element of the source iterator when it is read.
+	 *
+	 * @param sourceIterator
+	 *            iterator of objects A.
+	 * @param destinationClass
+	 *            the wanted type.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return an Iterator of type B.
+	 */
+	public <A, B> Iterator<B> mapIterator(final Iterator<A> sourceIterator, final Class<B> destinationClass) {
+		if (sourceIterator == null) {
+			return null;
+		}
+		return new MappedIterator<B>(sourceIterator, this.elementMapper(destinationClass));
+	}
+
+	/**
+	 * Return an iterable whose iterators map each element of the source iterable when it is read.
+	 *
+	 * @param sourceIterable
+	 *            iterable of objects A.
+	 * @param destinationClass
+	 *            the wanted type.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return an Iterable of type B.
+	 */
+	public <A, B> Iterable<B> mapIterable(final Iterable<A> sourceIterable, final Class<B> destinationClass) {
+		if (sourceIterable == null) {
+			return null;
+		}
+		final Function<Object, Object> elementMapper = this.elementMapper(destinationClass);
+		return () -> new MappedIterator<B>(sourceIterable.iterator(), elementMapper);
+	}
+
+	/**
+	 * Return a stream that maps each element of the source stream when it is consumed.
+	 *
+	 * @param sourceStream
+	 *            stream of objects A.
+	 * @param destinationClass
+	 *            the wanted type.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return a Stream of type B.
+	 */
+	public <A, B> Stream<B> mapStream(final Stream<A> sourceStream, final Class<B> destinationClass) {
+		if (sourceStream == null) {
+			return null;
+		}
+		Objects.requireNonNull(destinationClass, "destinationClass must be not null.");
+		return sourceStream.map(source -> this.map(source, destinationClass));
+	}
+
+	/**
+	 * Map a collection of type A to another collection of type B. <br>
+	 * Use this only if the destination collection not the same as the source collection. <br>
+	 * For example mapping an ArrayList of type A to an HashSet of type B. <br>
+	 * The way to create the collection implementation is resolved once per class and cached : an (int) constructor with the size of
+	 * the source (a capacity computed from the load factor for hash sets), else a no-arg constructor like TreeSet or LinkedList.
+	 * The interfaces Collection, List, Set, SortedSet, NavigableSet, Queue and Deque are also accepted.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
+	 * @param destinationClass
+	 *            the wanted type of destination collection.
+	 * @param collectionImpl
+	 *            the wanted collection implementation
+	 * @param <A>
+	 *            source class type of the mapper
+	 * @param <B>
+	 *            destination class type of the mapper
+	 * @param <C>
+	 *            the wanted collection implementation type
+	 * @return collection of type B.
+	 */
+	public <A, B, C extends Collection<B>> C map(final Collection<A> sourceList, final Class<B> destinationClass, final Class<C> collectionImpl) {
+
+		if (sourceList == null) {
+			return null;
+		}
+		Objects.requireNonNull(destinationClass, "destinationClass must be not null.");
+		Objects.requireNonNull(collectionImpl, "collectionImpl must be not null.");
+		return this.fillCollection(sourceList, destinationClass, CollectionFactories.newCollection(collectionImpl, sourceList.size()));
+	}
+
+	/**
+	 * Map a collection of type A to another collection of type B created by the given factory. <br>
+	 * For example {@code mapper.map(users, UserDto.class, ArrayDeque::new)} or {@code mapper.map(users, UserDto.class, size -> new TreeSet<>(comparator))}.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
 	 * @param destinationClass
-	 *            the returned type of instance.
+	 *            the wanted type of destination collection.
+	 * @param collectionFactory
+	 *            create the destination collection from the size of the source collection.
 	 * @param <A>
-	 *            source class
+	 *            source class type of the mapper
 	 * @param <B>
-	 *            destination class
-	 * @return instance of type B.
+	 *            destination class type of the mapper
+	 * @param <C>
+	 *            the wanted collection implementation type
+	 * @return collection of type B.
 	 */
-	public <A, B> B map(final A sourceObject, final Class<B> destinationClass) {
+	public <A, B, C extends Collection<B>> C map(final Collection<A> sourceList, final Class<B> destinationClass, final IntFunction<C> collectionFactory) {
 
-		if (sourceObject == null) {
+		if (sourceList == null) {
 			return null;
 		}
-
-		Objects.requireNonNull(destinationClass, "Destination Class Type must be not null.");
-
-		final Class<A> sourceClass = (Class<A>) sourceObject.getClass();
-
-		final String aTb = ZebraUtils.getMapperKey(sourceClass, destinationClass);
-		final String bTa = ZebraUtils.getMapperKey(destinationClass, sourceClass);
-		final Mapper<A, B> customMapperAToB = this.getMapper(this.mappers.get(aTb));
-		final Mapper<B, A> customMapperBToA = this.getMapper(this.mappers.get(bTa));
-		return this.proceedMapping(sourceObject, aTb, bTa, customMapperAToB, customMapperBToA);
+		Objects.requireNonNull(destinationClass, "destinationClass must be not null.");
+		Objects.requireNonNull(collectionFactory, "collectionFactory must be not null.");
+		return this.fillCollection(sourceList, destinationClass, collectionFactory.apply(sourceList.size()));
 	}
 
 	/**
-	 * This method map a List of objects A to a list of objects B.
+	 * This method map a collection of objects A and appends the objects B to an existing collection, to reuse a scratch list or to
+	 * concatenate several mapped batches without copy.<br>
+	 * An ArrayList or a Vector destination is grown once for the whole source before the first element is added.
 	 *
 	 * @param sourceList
-	 *            list of objects A.
+	 *            collection of objects A, null appends nothing.
 	 * @param destinationClass
-	 *            the wanted type of destination list.
+	 *            the wanted type of the appended objects.
+	 * @param destination
+	 *            the collection receiving the objects B.
 	 * @param <A>
 	 *            source class
 	 * @param <B>
 	 *            destination class
-	 * @return List of type B.
+	 * @param <C>
+	 *            the destination collection type
+	 * @return the destination collection.
 	 */
-	public <A, B> List<B> map(final List<A> sourceList, final Class<B> destinationClass) {
+	public <A, B, C extends Collection<? super B>> C mapTo(final Collection<A> sourceList, final Class<B> destinationClass, final C destination) {
+		Objects.requireNonNull(destination, "Destination collection must be not null.");
 		if (sourceList == null) {
-			return null;
+			return destination;
 		}
-		final List<B> returnList = new ArrayList<B>(sourceList.size());
-		for (final A a : sourceList) {
-			returnList.add(this.map(a, destinationClass));
-		}
-		return returnList;
+		CollectionFactories.ensureCapacity(destination, sourceList.size());
+		return this.fillCollection(sourceList, destinationClass, destination);
 	}
 
 	/**
-	 * Map a collection of type A to another collection of type B. <br>
-	 * Use this only if the destination collection not the same as the source collection. <br>
-	 * For example mapping an ArrayList of type A to an HashSet of type B. <br>
-	 * We not recommend to use this method, unless you are okay with using reflection at runtime every time you call this method.
+	 * This method map a collection of objects A into an existing array of objects B, from the given offset.
 	 *
 	 * @param sourceList
-	 *            list of objects A.
+	 *            collection of objects A, null writes nothing.
 	 * @param destinationClass
-	 *            the wanted type of destination collection.
-	 * @param collectionImpl
-	 *            the wanted collection implementation
+	 *            the wanted type of the written objects.
+	 * @param destination
+	 *            the array receiving the objects B, it must have room for the whole source from the offset.
+	 * @param offset
+	 *            the index of the first written object.
 	 * @param <A>
-	 *            source class type of the mapper
+	 *            source class
 	 * @param <B>
-	 *            destination class type of the mapper
-	 * @param <C>
-	 *            the wanted collection implementation type
-	 * @return
+	 *            destination class
+	 * @return the index after the last written object.
 	 */
-	public <A, B, C extends Collection<B>> C map(final Collection<A> sourceList, final Class<B> destinationClass, final Class<C> collectionImpl) {
-
+	public <A, B> int mapTo(final Collection<A> sourceList, final Class<B> destinationClass, final B[] destination, final int offset) {
+		Objects.requireNonNull(destination, "Destination array must be not null.");
 		if (sourceList == null) {
-			return null;
+			return offset;
 		}
-		Objects.requireNonNull(destinationClass, "destinationClass must be not null.");
-		Objects.requireNonNull(collectionImpl, "collectionImpl must be not null.");
-		final C returnCollection;
+		Objects.checkFromIndexSize(offset, sourceList.size(), destination.length);
+		final BatchMapper batchMapper = this.batchMapper(destinationClass);
+		int index = offset;
+		batchMapper.begin();
 		try {
-			returnCollection = collectionImpl.getConstructor(int.class).newInstance(sourceList.size());
-		} catch (final Exception exception) {
-			throw new IllegalStateException(exception.getMessage(), exception.getCause());
+			for (final A a : sourceList) {
+				destination[index++] = (B) batchMapper.apply(a);
+			}
+		} finally {
+			batchMapper.end();
 		}
-		for (final A a : sourceList) {
-			returnCollection.add(this.map(a, destinationClass));
+		return index;
+	}
+
+	private <A, B, C extends Collection<? super B>> C fillCollection(final Collection<A> sourceList, final Class<B> destinationClass, final C returnCollection) {
+		final BatchMapper batchMapper = this.batchMapper(destinationClass);
+		batchMapper.begin();
+		try {
+			for (final A a : sourceList) {
+				returnCollection.add((B) batchMapper.apply(a));
+			}
+		} finally {
+			batchMapper.end();
 		}
 		return returnCollection;
 	}
@@ -169,7 +1359,17 @@ public class MapperProcessor {
 			return null;
 		}
 		Objects.requireNonNull(mapperClass, "mapperClass must be not null.");
-		return this.getMapper(mapperClass).mapAToB(sourceObject);
+		final Mapper<A, B> mapper = this.getMapper(mapperClass);
+		final MappingEvent event = MappingRecording.start();
+		if (this.metrics == null && event == null) {
+			return mapper.mapAToB(sourceObject);
+		}
+		final long start = System.nanoTime();
+		try {
+			return mapper.mapAToB(sourceObject);
+		} finally {
+			this.record(mapper, event, MappingDirection.A_TO_B, 1, start);
+		}
 	}
 
 	/**
@@ -186,13 +1386,133 @@ public class MapperProcessor {
 		if (sourceObject == null) {
 			return null;
 		}
+		return this.straightMapTo(sourceObject, mapperClass, new ArrayList<B>(sourceObject.size()));
+	}
+
+	/**
+	 * Same as {@link #straightMap(List, Class)} but the objects B are appended to an existing collection, see
+	 * {@link #mapTo(Collection, Class, Collection)}.
+	 *
+	 * @param sourceObject
+	 *            collection of source instances of type A, null appends nothing.
+	 * @param mapperClass
+	 *            the concret mapper Class.
+	 * @param destination
+	 *            the collection receiving the instances of type B.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @param <C>
+	 *            the destination collection type
+	 * @return the destination collection.
+	 */
+	public <A, B, C extends Collection<? super B>> C straightMapTo(final Collection<A> sourceObject, final Class<? extends Mapper<A, B>> mapperClass, final C destination) {
+		Objects.requireNonNull(destination, "Destination collection must be not null.");
+		if (sourceObject == null) {
+			return destination;
+		}
 		Objects.requireNonNull(mapperClass, "mapperClass must be not null.");
 		final Mapper<A, B> mapper = this.getMapper(mapperClass);
-		final List<B> returnList = new ArrayList<B>(sourceObject.size());
-		for (final A a : sourceObject) {
-			returnList.add(mapper.mapAToB(a));
+		CollectionFactories.ensureCapacity(destination, sourceObject.size());
+		final MappingEvent event = MappingRecording.start();
+		final long start = this.metrics == null ? 0 : System.nanoTime();
+		try {
+			for (final A a : sourceObject) {
+				destination.add(mapper.mapAToB(a));
+			}
+		} finally {
+			this.record(mapper, event, MappingDirection.A_TO_B, sourceObject.size(), start);
+		}
+		return destination;
+	}
+
+	/**
+	 * Same as {@link #straightMap(List, Class)} but the instances of type B are written into an existing array from the given offset.
+	 *
+	 * @param sourceObject
+	 *            collection of source instances of type A, null writes nothing.
+	 * @param mapperClass
+	 *            the concret mapper Class.
+	 * @param destination
+	 *            the array receiving the instances of type B, it must have room for the whole source from the offset.
+	 * @param offset
+	 *            the index of the first written instance.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return the index after the last written instance.
+	 */
+	public <A, B> int straightMapTo(final Collection<A> sourceObject, final Class<? extends Mapper<A, B>> mapperClass, final B[] destination, final int offset) {
+		Objects.requireNonNull(destination, "Destination array must be not null.");
+		if (sourceObject == null) {
+			return offset;
+		}
+		Objects.requireNonNull(mapperClass, "mapperClass must be not null.");
+		Objects.checkFromIndexSize(offset, sourceObject.size(), destination.length);
+		final Mapper<A, B> mapper = this.getMapper(mapperClass);
+		int index = offset;
+		final MappingEvent event = MappingRecording.start();
+		final long start = this.metrics == null ? 0 : System.nanoTime();
+		try {
+			for (final A a : sourceObject) {
+				destination[index++] = mapper.mapAToB(a);
+			}
+		} finally {
+			this.record(mapper, event, MappingDirection.A_TO_B, sourceObject.size(), start);
+		}
+		return index;
+	}
+
+	/**
+	 * Same as {@link #straightMap(List, Class)} but the elements are mapped in parallel by the common fork join pool.<br>
+	 * Lists not bigger than {@link #DEFAULT_PARALLEL_THRESHOLD} are mapped sequentially.
+	 *
+	 * @param sourceObject
+	 *            List of source instance of type A.
+	 * @param mapperClass
+	 *            the concret mapper Class.
+	 * @return list of instance of type B in the order of the source list, its size can't be changed.
+	 */
+	public <A, B> List<B> straightMapParallel(final List<A> sourceObject, final Class<? extends Mapper<A, B>> mapperClass) {
+		return this.straightMapParallel(sourceObject, mapperClass, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Same as {@link #straightMap(List, Class)} but the elements are mapped in parallel by the given pool.<br>
+	 * Lists not bigger than the threshold are mapped sequentially.
+	 *
+	 * @param sourceObject
+	 *            List of source instance of type A.
+	 * @param mapperClass
+	 *            the concret mapper Class.
+	 * @param pool
+	 *            the fork join pool running the mapping.
+	 * @param threshold
+	 *            maximum number of elements mapped sequentially by one task.
+	 * @return list of instance of type B in the order of the source list, its size can't be changed.
+	 */
+	public <A, B> List<B> straightMapParallel(final List<A> sourceObject,
+			final Class<? extends Mapper<A, B>> mapperClass,
+			final ForkJoinPool pool,
+			final int threshold) {
+		if (sourceObject == null) {
+			return null;
+		}
+		Objects.requireNonNull(mapperClass, "mapperClass must be not null.");
+		checkParallelParameters(pool, threshold);
+		if (sourceObject.size() <= threshold) {
+			return this.straightMap(sourceObject, mapperClass);
+		}
+		final Mapper mapper = this.getMapper(mapperClass);
+		final MappingEvent event = MappingRecording.start();
+		final long start = this.metrics == null ? 0 : System.nanoTime();
+		try {
+			return (List<B>) Arrays.asList(ParallelMapping.map(sourceObject, mapper::mapAToB, pool, threshold));
+		} finally {
+			this.record(mapper, event, MappingDirection.A_TO_B, sourceObject.size(), start);
 		}
-		return returnList;
 	}
 
 	/**
@@ -210,7 +1530,17 @@ public class MapperProcessor {
 			return null;
 		}
 		Objects.requireNonNull(mapperClass, "mapperClass must be not null.");
-		return this.getMapper(mapperClass).mapBToA(sourceObject);
+		final Mapper<A, B> mapper = this.getMapper(mapperClass);
+		final MappingEvent event = MappingRecording.start();
+		if (this.metrics == null && event == null) {
+			return mapper.mapBToA(sourceObject);
+		}
+		final long start = System.nanoTime();
+		try {
+			return mapper.mapBToA(sourceObject);
+		} finally {
+			this.record(mapper, event, MappingDirection.B_TO_A, 1, start);
+		}
 	}
 
 	/**
@@ -227,48 +1557,366 @@ public class MapperProcessor {
 		if (sourceObject == null) {
 			return null;
 		}
+		return this.reverseMapTo(sourceObject, mapperClass, new ArrayList<A>(sourceObject.size()));
+	}
+
+	/**
+	 * Same as {@link #reverseMap(List, Class)} but the objects A are appended to an existing collection, see
+	 * {@link #mapTo(Collection, Class, Collection)}.
+	 *
+	 * @param sourceObject
+	 *            collection of source instances of type B, null appends nothing.
+	 * @param mapperClass
+	 *            the concret mapper Class.
+	 * @param destination
+	 *            the collection receiving the instances of type A.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @param <C>
+	 *            the destination collection type
+	 * @return the destination collection.
+	 */
+	public <A, B, C extends Collection<? super A>> C reverseMapTo(final Collection<B> sourceObject, final Class<? extends Mapper<A, B>> mapperClass, final C destination) {
+		Objects.requireNonNull(destination, "Destination collection must be not null.");
+		if (sourceObject == null) {
+			return destination;
+		}
 		Objects.requireNonNull(mapperClass, "mapperClass must be not null.");
 		final Mapper<A, B> mapper = this.getMapper(mapperClass);
-		final List<A> returnList = new ArrayList<A>(sourceObject.size());
-		for (final B b : sourceObject) {
-			returnList.add(mapper.mapBToA(b));
+		CollectionFactories.ensureCapacity(destination, sourceObject.size());
+		final MappingEvent event = MappingRecording.start();
+		final long start = this.metrics == null ? 0 : System.nanoTime();
+		try {
+			for (final B b : sourceObject) {
+				destination.add(mapper.mapBToA(b));
+			}
+		} finally {
+			this.record(mapper, event, MappingDirection.B_TO_A, sourceObject.size(), start);
 		}
-		return returnList;
+		return destination;
+	}
+
+	/**
+	 * Same as {@link #reverseMap(List, Class)} but the instances of type A are written into an existing array from the given offset.
+	 *
+	 * @param sourceObject
+	 *            collection of source instances of type B, null writes nothing.
+	 * @param mapperClass
+	 *            the concret mapper Class.
+	 * @param destination
+	 *            the array receiving the instances of type A, it must have room for the whole source from the offset.
+	 * @param offset
+	 *            the index of the first written instance.
+	 * @param <A>
+	 *            source class
+	 * @param <B>
+	 *            destination class
+	 * @return the index after the last written instance.
+	 */
+	public <A, B> int reverseMapTo(final Collection<B> sourceObject, final Class<? extends Mapper<A, B>> mapperClass, final A[] destination, final int offset) {
+		Objects.requireNonNull(destination, "Destination array must be not null.");
+		if (sourceObject == null) {
+			return offset;
+		}
+		Objects.requireNonNull(mapperClass, "mapperClass must be not null.");
+		Objects.checkFromIndexSize(offset, sourceObject.size(), destination.length);
+		final Mapper<A, B> mapper = this.getMapper(mapperClass);
+		int index = offset;
+		final MappingEvent event = MappingRecording.start();
+		final long start = this.metrics == null ? 0 : System.nanoTime();
+		try {
+			for (final B b : sourceObject) {
+				destination[index++] = mapper.mapBToA(b);
+			}
+		} finally {
+			this.record(mapper, event, MappingDirection.B_TO_A, sourceObject.size(), start);
+		}
+		return index;
+	}
+
+	/**
+	 * Same as {@link #reverseMap(List, Class)} but the elements are mapped in parallel by the common fork join pool.<br>
+	 * Lists not bigger than {@link #DEFAULT_PARALLEL_THRESHOLD} are mapped sequentially.
+	 *
+	 * @param sourceObject
+	 *            List of source instance of type B.
+	 * @param mapperClass
+	 *            the concret mapper Class.
+	 * @return list of instance of type A in the order of the source list, its size can't be changed.
+	 */
+	public <A, B> List<A> reverseMapParallel(final List<B> sourceObject, final Class<? extends Mapper<A, B>> mapperClass) {
+		return this.reverseMapParallel(sourceObject, mapperClass, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
 	}
 
-	private Mapper getMapper(final List<Mapper> mappers) {
-		if (mappers == null) {
+	/**
+	 * Same as {@link #reverseMap(List, Class)} but the elements are mapped in parallel by the given pool.<br>
+	 * Lists not bigger than the threshold are mapped sequentially.
+	 *
+	 * @param sourceObject
+	 *            List of source instance of type B.
+	 * @param mapperClass
+	 *            the concret mapper Class.
+	 * @param pool
+	 *            the fork join pool running the mapping.
+	 * @param threshold
+	 *            maximum number of elements mapped sequentially by one task.
+	 * @return list of instance of type A in the order of the source list, its size can't be changed.
+	 */
+	public <A, B> List<A> reverseMapParallel(final List<B> sourceObject,
+			final Class<? extends Mapper<A, B>> mapperClass,
+			final ForkJoinPool pool,
+			final int threshold) {
+		if (sourceObject == null) {
 			return null;
 		}
-		if (mappers.size() > 1) {
-			final List<String> mappersName = new ArrayList<String>(mappers.size());
-			for (final Mapper mapper : mappers) {
-				mappersName.add(mapper.getClass().getCanonicalName());
+		Objects.requireNonNull(mapperClass, "mapperClass must be not null.");
+		checkParallelParameters(pool, threshold);
+		if (sourceObject.size() <= threshold) {
+			return this.reverseMap(sourceObject, mapperClass);
+		}
+		final Mapper mapper = this.getMapper(mapperClass);
+		final MappingEvent event = MappingRecording.start();
+		final long start = this.metrics == null ? 0 : System.nanoTime();
+		try {
+			return (List<A>) Arrays.asList(ParallelMapping.map(sourceObject, mapper::mapBToA, pool, threshold));
+		} finally {
+			this.record(mapper, event, MappingDirection.B_TO_A, sourceObject.size(), start);
+		}
+	}
+
+	/**
+	 * give the counters of the result cache of a memoized mapper, see {@link Memoized}.
+	 *
+	 * @param mapperClass
+	 *            the concret mapper Class.
+	 * @return the counters or null if the mapper is not memoized.
+	 */
+	public MappingCacheStatistics getCacheStatistics(final Class<? extends Mapper> mapperClass) {
+		Objects.requireNonNull(mapperClass, "mapperClass must be not null.");
+		final Mapper mapper = this.getMapper((Class) mapperClass);
+		return mapper instanceof MemoizingMapper ? ((MemoizingMapper) mapper).statistics() : null;
+	}
+
+	/**
+	 * record a call made with one mapper : its metrics and its event get the number of mapped elements.
+	 */
+	private void record(final Mapper mapper, final MappingEvent event, final MappingDirection direction, final int elements, final long start) {
+		// the hops of a chain are already measured.
+		if (this.metrics != null && !(mapper instanceof ChainedMapper)) {
+			this.metrics.record(mapper.getMapperClass(), direction, elements, System.nanoTime() - start);
+		}
+		MappingRecording.finish(event, mapper.getMapperClass(), direction, elements);
+	}
+
+	/**
+	 * finish the event of a list mapped in parallel, it gives the mapper of the first element.
+	 */
+	private void finishEvent(final MappingEvent event, final List<?> sourceList, final Class<?> destinationClass) {
+		if (event == null) {
+			return;
+		}
+		for (final Object source : sourceList) {
+			if (source != null) {
+				final MappingRoute route = this.findRoute(source.getClass(), destinationClass);
+				MappingRecording.finish(event, route.getMapperClass(), route.getDirection(), sourceList.size());
+				return;
+			}
+		}
+		MappingRecording.finish(event, null, null, sourceList.size());
+	}
+
+	private Function<Object, Object> elementMapper(final Class<?> destinationClass) {
+		Objects.requireNonNull(destinationClass, "destinationClass must be not null.");
+		return source -> this.map(source, destinationClass);
+	}
+
+	/**
+	 * @return a mapper for the elements of one batch mapped by the current thread, it resolves the route once per runtime class of
+	 *         the elements instead of once per element. Inside mapWithContext, every element goes through the identity context.
+	 */
+	private BatchMapper batchMapper(final Class<?> destinationClass) {
+		Objects.requireNonNull(destinationClass, "Destination Class Type must be not null.");
+		return new BatchMapper(destinationClass, this.activeContexts.get() != 0 ? this.contexts.get() : null);
+	}
+
+	/**
+	 * Map the elements of a batch, used by one thread at a time.<br>
+	 * The elements are mapped between {@link #begin()} and {@link #end()} without recording each of them : the batch is recorded as
+	 * one call per route with the number of elements it mapped, and gives one event unless it is a part of a bigger batch. The
+	 * mappings made by the mappers are recorded as usual.
+	 */
+	final class BatchMapper implements Function<Object, Object> {
+
+		private final Class<?> destinationClass;
+
+		// the identity context of the thread creating the batch, null outside of mapWithContext.
+		private final MappingContext context;
+
+		// false for the ranges of a parallel batch, the whole batch gives the event.
+		private final boolean withEvent;
+
+		private Class<?> lastSourceClass;
+
+		// the table of the last route, a runtime registration makes the route resolved again.
+		private DispatchTable lastTable;
+
+		private MappingRoute lastRoute;
+
+		private Mapper lastMapper;
+
+		// the recording of the running batch : its event, its first route and the elements mapped by the last route.
+		private MappingEvent event;
+
+		private MappingRoute eventRoute;
+
+		private int elements;
+
+		private int routeElements;
+
+		private long routeStart;
+
+		private long[] hopNanos;
+
+		BatchMapper(final Class<?> destinationClass, final MappingContext context) {
+			this(destinationClass, context, true);
+		}
+
+		BatchMapper(final Class<?> destinationClass, final MappingContext context, final boolean withEvent) {
+			this.destinationClass = destinationClass;
+			this.context = context;
+			this.withEvent = withEvent;
+		}
+
+		/**
+		 * start a batch.
+		 */
+		void begin() {
+			this.event = this.withEvent ? MappingRecording.start() : null;
+			this.eventRoute = null;
+			this.elements = 0;
+			this.routeElements = 0;
+			this.routeStart = MapperProcessor.this.metrics == null ? 0 : System.nanoTime();
+			this.hopNanos = this.lastRoute == null ? null : this.lastRoute.newHopNanos();
+		}
+
+		/**
+		 * record the batch started by {@link #begin()}.
+		 */
+		void end() {
+			this.recordRoute();
+			if (this.eventRoute == null) {
+				MappingRecording.finish(this.event, null, null, this.elements);
+			} else {
+				MappingRecording.finish(this.event, this.eventRoute.getMapperClass(), this.eventRoute.getDirection(), this.elements);
+			}
+			this.event = null;
+		}
+
+		@Override
+		public Object apply(final Object source) {
+			this.elements++;
+			if (source == null) {
+				return null;
+			}
+			if (this.context == null) {
+				return this.mapElement(source);
+			}
+			final Object alreadyMapped = this.context.get(source, this.destinationClass);
+			if (alreadyMapped != null) {
+				return alreadyMapped;
+			}
+			final Object destination;
+			this.context.enter(source);
+			try {
+				destination = this.mapElement(source);
+			} finally {
+				this.context.exit();
+			}
+			this.context.put(source, this.destinationClass, destination);
+			return destination;
+		}
+
+		private Object mapElement(final Object source) {
+			final Class<?> sourceClass = source.getClass();
+			final DispatchTable table = MapperProcessor.this.dispatchTable;
+			if (sourceClass != this.lastSourceClass || table != this.lastTable) {
+				final MappingRoute route = MapperProcessor.this.findRoute(table, sourceClass, this.destinationClass);
+				if (route != this.lastRoute) {
+					this.recordRoute();
+					this.lastMapper = route.getMapper();
+					this.lastRoute = route;
+					this.hopNanos = route.newHopNanos();
+				}
+				this.lastSourceClass = sourceClass;
+				this.lastTable = table;
+			}
+			if (this.eventRoute == null) {
+				this.eventRoute = this.lastRoute;
+			}
+			this.routeElements++;
+			return this.lastRoute.call(this.lastMapper, source, this.hopNanos);
+		}
+
+		/**
+		 * give the elements mapped by the last route to the metrics.
+		 */
+		private void recordRoute() {
+			if (MapperProcessor.this.metrics != null && this.routeElements > 0) {
+				this.lastRoute.record(this.lastMapper, null, this.routeElements, this.routeStart, this.hopNanos);
+				this.routeStart = System.nanoTime();
+				this.hopNanos = this.lastRoute.newHopNanos();
 			}
-			throw new IllegalStateException("there are two registred mappers : " + mappersName + ". Please call straightMap or reverseMap and specify one of the concret Mappers.");
-		} else {
-			return mappers.get(0);
+			this.routeElements = 0;
 		}
 	}
 
-	private <A, B> B proceedMapping(final A sourceObject,
-			final String aTb,
-			final String bTa,
-			final Mapper<A, B> customMapperAToB,
-			final Mapper<B, A> customMapperBToA) {
-		if (customMapperAToB != null) {
-			return customMapperAToB.mapAToB(sourceObject);
+	private static void checkParallelParameters(final ForkJoinPool pool, final int threshold) {
+		Objects.requireNonNull(pool, "pool must be not null.");
+		if (threshold < 1) {
+			throw new IllegalArgumentException("threshold must be greater than 0.");
 		}
-		if (customMapperBToA != null) {
-			return customMapperBToA.mapBToA(sourceObject);
+	}
+
+	private UnsupportedOperationException noMapperDefined(final Class<?> sourceClass, final Class<?> destinationClass) {
+		return new UnsupportedOperationException("No mapper defined for ["
+				+ ZebraUtils.getMapperKey(sourceClass, destinationClass)
+				+ "] or ["
+				+ ZebraUtils.getMapperKey(destinationClass, sourceClass)
+				+ "]");
+	}
+
+	private static List<MapperRegistration> toRegistrations(final Map<String, List<Mapper>> mappers) {
+		Objects.requireNonNull(mappers, "Mappers store must be not null.");
+		final List<MapperRegistration> registrations = new ArrayList<MapperRegistration>();
+		for (final List<Mapper> keyMappers : mappers.values()) {
+			for (final Mapper mapper : keyMappers) {
+				final Class<?>[] mapperTypes = ZebraUtils.getMapperTypes(mapper.getClass());
+				registrations.add(new MapperRegistration(mapperTypes[0], mapperTypes[1], MapperHolder.of(MemoizingMapper.memoize(mapper, 0, false))));
+			}
 		}
-		throw new UnsupportedOperationException("No mapper defined for [" + aTb + "] or [" + bTa + "]");
+		return registrations;
 	}
 
+	/**
+	 * find a registered mapper by its class. A mapper registered with a supplier and its class is created if needed, the other
+	 * mappers not yet created are left untouched.
+	 */
 	private <A, B> Mapper<A, B> getMapper(final Class<? extends Mapper<A, B>> mapperClass) {
-		final Mapper<A, B> mapper = this.mappersByClass.get(mapperClass);
+		Mapper<A, B> mapper = this.mappersByClass.get(mapperClass);
+		if (mapper == null) {
+			for (final MapperHolder lazyMapper : this.lazyMappers) {
+				if (lazyMapper.getMapperClass() == mapperClass) {
+					mapper = lazyMapper.get();
+					break;
+				}
+			}
+		}
 		if (mapper == null) {
-			throw new IllegalStateException("this mapper is not registred :" + mapperClass.getCanonicalName());
+			throw new IllegalStateException("this mapper is not registred :"
+					+ mapperClass.getCanonicalName()
+					+ ". A mapper registered with a supplier is found only when it is registered with its class.");
 		}
 		return mapper;
 	}
@@ -0,0 +1,21 @@
+package com.agileasoft.zebra;
+
+/**
+ * A registered mapper with its already resolved source and destination classes.
+ *
+ * @author amgohan
+ */
+final class MapperRegistration {
+
+	final Class<?> sourceClass;
+
+	final Class<?> destinationClass;
+
+	final MapperHolder holder;
+
+	MapperRegistration(final Class<?> sourceClass, final Class<?> destinationClass, final MapperHolder holder) {
+		this.sourceClass = sourceClass;
+		this.destinationClass = destinationClass;
+		this.holder = holder;
+	}
+}
@@ -0,0 +1,19 @@
+package com.agileasoft.zebra;
+
+/**
+ * A set of mappers registered with their already resolved classes.<br>
+ * The zebra annotation processor generates an implementation for the mappers annotated with {@link ZebraMapper}, and declares it
+ * in META-INF/services so {@link MapperFactory#registerDiscovered()} finds it with the ServiceLoader.
+ *
+ * @author amgohan
+ */
+public interface MapperRegistry {
+
+	/**
+	 * register all mappers of this registry.
+	 *
+	 * @param factory
+	 *            the factory to register the mappers in.
+	 */
+	void registerMappers(MapperFactory factory);
+}
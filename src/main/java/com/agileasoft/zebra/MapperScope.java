@@ -0,0 +1,29 @@
+package com.agileasoft.zebra;
+
+/**
+ * How the instances of a mapper registered with a supplier are shared between the threads, see
+ * {@link MapperFactory#register(Class, Class, java.util.function.Supplier, MapperScope)}.
+ *
+ * @author amgohan
+ */
+public enum MapperScope {
+
+	/**
+	 * one instance used by every thread, created by its first use. The mapper must be thread safe.
+	 */
+	SHARED,
+
+	/**
+	 * one instance per thread, created by the first mapping of the thread and kept as long as the thread lives, even after the
+	 * MapperProcessor is discarded. The nested mappings of a thread to the same mapper use the same instance. Prefer {@link #POOLED}
+	 * with virtual threads or with pooled threads outliving the processor.
+	 */
+	THREAD,
+
+	/**
+	 * each mapping borrows an idle instance and gives it back once done, a new instance is created when none is idle. There are never
+	 * more instances than mappings running at the same time, and a nested mapping never gets the instance of its caller. At most one
+	 * idle instance per available processor, and not less than 8, is kept : the others are dropped when they are given back.
+	 */
+	POOLED;
+}
@@ -0,0 +1,145 @@
+package com.agileasoft.zebra;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of mapping results, safe under concurrency.<br>
+ * The entries are spread on up to 16 segments by the hash of the source, each segment is a LinkedHashMap in access order which
+ * evicts its least recently used entry when it is full, under the lock of this segment only. A hit allocates nothing when the keys
+ * are compared with equals. Null results are not kept.
+ *
+ * @author amgohan
+ */
+final class MappingCache {
+
+	private static final int MAX_SEGMENTS = 16;
+
+	// a segment is only created for at least this number of entries, so a small cache keeps an exact LRU order.
+	private static final int MIN_SEGMENT_SIZE = 64;
+
+	private final Segment[] segments;
+
+	private final boolean identity;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maximumSize
+	 *            the maximum number of entries.
+	 * @param identity
+	 *            true to compare the sources by identity.
+	 */
+	MappingCache(final int maximumSize, final boolean identity) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("maximumSize must be greater than 0.");
+		}
+		int segmentCount = 1;
+		while (segmentCount < MAX_SEGMENTS && segmentCount * 2 * MIN_SEGMENT_SIZE <= maximumSize) {
+			segmentCount <<= 1;
+		}
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			// the first segments take the remainder, the sum of the capacities is exactly maximumSize.
+			this.segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+		}
+		this.identity = identity;
+	}
+
+	/**
+	 * @param source
+	 *            the source instance, not null.
+	 * @param mapping
+	 *            map the source when its result is not in the cache.
+	 * @return the cached or mapped result.
+	 */
+	Object get(final Object source, final Function<Object, Object> mapping) {
+		final Object key = this.identity ? new IdentityKey(source) : source;
+		final int hash = key.hashCode();
+		final Segment segment = this.segments[(hash ^ (hash >>> 16)) & (this.segments.length - 1)];
+		Object result;
+		synchronized (segment) {
+			result = segment.get(key);
+		}
+		if (result != null) {
+			this.hits.increment();
+			return result;
+		}
+		this.misses.increment();
+		result = mapping.apply(source);
+		if (result != null) {
+			synchronized (segment) {
+				segment.put(key, result);
+			}
+		}
+		return result;
+	}
+
+	long hits() {
+		return this.hits.sum();
+	}
+
+	long misses() {
+		return this.misses.sum();
+	}
+
+	long evictions() {
+		return this.evictions.sum();
+	}
+
+	int size() {
+		int size = 0;
+		for (final Segment segment : this.segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	private final class Segment extends LinkedHashMap<Object, Object> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		Segment(final int capacity) {
+			super(CollectionFactories.hashCapacity(capacity + 1), 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Object, Object> eldest) {
+			if (this.size() > this.capacity) {
+				MappingCache.this.evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	private static final class IdentityKey {
+
+		private final Object source;
+
+		IdentityKey(final Object source) {
+			this.source = source;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.source);
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			return other instanceof IdentityKey && ((IdentityKey) other).source == this.source;
+		}
+	}
+}
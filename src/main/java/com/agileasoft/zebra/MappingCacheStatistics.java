@@ -0,0 +1,63 @@
+package com.agileasoft.zebra;
+
+/**
+ * The counters of the result cache of a memoized mapper at the time of the call, see {@link Memoized}.
+ *
+ * @author amgohan
+ */
+public final class MappingCacheStatistics {
+
+	private final Class<?> mapperClass;
+
+	private final long hits;
+
+	private final long misses;
+
+	private final long evictions;
+
+	private final int size;
+
+	MappingCacheStatistics(final Class<?> mapperClass, final long hits, final long misses, final long evictions, final int size) {
+		this.mapperClass = mapperClass;
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.size = size;
+	}
+
+	public Class<?> getMapperClass() {
+		return this.mapperClass;
+	}
+
+	public long getHits() {
+		return this.hits;
+	}
+
+	public long getMisses() {
+		return this.misses;
+	}
+
+	public long getEvictions() {
+		return this.evictions;
+	}
+
+	/**
+	 * @return the number of results kept in both directions.
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * @return the part of the calls answered by the cache, between 0 and 1.
+	 */
+	public double getHitRatio() {
+		final long requests = this.hits + this.misses;
+		return requests == 0 ? 0 : (double) this.hits / requests;
+	}
+
+	@Override
+	public String toString() {
+		return this.mapperClass.getName() + " [hits=" + this.hits + ", misses=" + this.misses + ", evictions=" + this.evictions + ", size=" + this.size + "]";
+	}
+}
@@ -0,0 +1,148 @@
+package com.agileasoft.zebra;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The objects already mapped during one top level call of {@link MapperProcessor#mapWithContext(Object, Class)}.<br>
+ * Source objects are compared by identity, so a source instance is mapped only once to each destination type : shared references
+ * stay shared in the destination graph and cycles terminate, also when a source is mapped to several types.<br>
+ * The context of an {@link IncrementalMapping} also tracks the dependencies : the sources being mapped when a source is mapped, or
+ * found already mapped, are its parents.
+ *
+ * @author amgohan
+ */
+@SuppressWarnings("unchecked")
+final class MappingContext {
+
+	// one identity table per destination class, in the order of their first mapping.
+	private final Map<Class<?>, Map<Object, Object>> mapped = new LinkedHashMap<Class<?>, Map<Object, Object>>();
+
+	// parents by source and sources being mapped, null when the dependencies are not tracked.
+	private final Map<Object, Set<Object>> parents;
+
+	private final Deque<Object> mapping;
+
+	MappingContext() {
+		this(false);
+	}
+
+	/**
+	 * @param tracking
+	 *            true to track the dependencies between the mapped sources.
+	 */
+	MappingContext(final boolean tracking) {
+		this.parents = tracking ? new IdentityHashMap<Object, Set<Object>>() : null;
+		this.mapping = tracking ? new ArrayDeque<Object>() : null;
+	}
+
+	/**
+	 * @param source
+	 *            the source instance.
+	 * @param destinationClass
+	 *            the wanted type.
+	 * @return the destination already mapped from this source instance to this type, or to one of its subclasses, or null if the
+	 *         source was not mapped yet to this type.
+	 */
+	<B> B get(final Object source, final Class<B> destinationClass) {
+		this.addParent(source);
+		final Map<Object, Object> destinations = this.mapped.get(destinationClass);
+		final Object destination = destinations == null ? null : destinations.get(source);
+		if (destination != null || this.mapped.size() < 2) {
+			return (B) destination;
+		}
+		// a destination kept by remember is known by its runtime class.
+		for (final Map.Entry<Class<?>, Map<Object, Object>> entry : this.mapped.entrySet()) {
+			if (entry.getKey() != destinationClass && destinationClass.isAssignableFrom(entry.getKey())) {
+				final Object subclassDestination = entry.getValue().get(source);
+				if (subclassDestination != null) {
+					return (B) subclassDestination;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param source
+	 *            the source instance.
+	 * @return the destinations mapped from this source instance by destination class, empty if it was not mapped.
+	 */
+	Map<Class<?>, Object> destinationsOf(final Object source) {
+		final Map<Class<?>, Object> sourceDestinations = new LinkedHashMap<Class<?>, Object>(4);
+		for (final Map.Entry<Class<?>, Map<Object, Object>> entry : this.mapped.entrySet()) {
+			final Object destination = entry.getValue().get(source);
+			if (destination != null) {
+				sourceDestinations.put(entry.getKey(), destination);
+			}
+		}
+		return sourceDestinations;
+	}
+
+	/**
+	 * keep the destination mapped from the source instance to the destination class.
+	 *
+	 * @param source
+	 *            the source instance.
+	 * @param destinationClass
+	 *            the type the source was mapped to.
+	 * @param destination
+	 *            its mapped instance.
+	 */
+	void put(final Object source, final Class<?> destinationClass, final Object destination) {
+		Map<Object, Object> destinations = this.mapped.get(destinationClass);
+		if (destinations == null) {
+			destinations = new IdentityHashMap<Object, Object>();
+			this.mapped.put(destinationClass, destinations);
+		}
+		destinations.put(source, destination);
+	}
+
+	/**
+	 * the source starts to be mapped, the sources mapped until {@link #exit()} are its children.
+	 *
+	 * @param source
+	 *            the source instance.
+	 */
+	void enter(final Object source) {
+		if (this.mapping != null) {
+			this.mapping.push(source);
+		}
+	}
+
+	/**
+	 * the last entered source is mapped.
+	 */
+	void exit() {
+		if (this.mapping != null) {
+			this.mapping.pop();
+		}
+	}
+
+	/**
+	 * @param source
+	 *            the source instance.
+	 * @return the sources whose mapping mapped this source, empty if it is a root or if the dependencies are not tracked.
+	 */
+	Set<Object> parentsOf(final Object source) {
+		final Set<Object> sourceParents = this.parents == null ? null : this.parents.get(source);
+		return sourceParents == null ? Collections.<Object> emptySet() : sourceParents;
+	}
+
+	private void addParent(final Object source) {
+		if (this.mapping == null || this.mapping.isEmpty()) {
+			return;
+		}
+		Set<Object> sourceParents = this.parents.get(source);
+		if (sourceParents == null) {
+			sourceParents = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>(4));
+			this.parents.put(source, sourceParents);
+		}
+		sourceParents.add(this.mapping.peek());
+	}
+}
@@ -0,0 +1,28 @@
+package com.agileasoft.zebra;
+
+/**
+ * The method of a mapper called for a mapping.
+ *
+ * @author amgohan
+ */
+public enum MappingDirection {
+
+	/**
+	 * {@link Mapper#mapAToB(Object)}, from the source class to the destination class of the mapper.
+	 */
+	A_TO_B,
+
+	/**
+	 * {@link Mapper#mapBToA(Object)}, from the destination class back to the source class of the mapper.
+	 */
+	B_TO_A;
+
+	/**
+	 * @param reverse
+	 *            true for mapBToA.
+	 * @return the direction.
+	 */
+	static MappingDirection of(final boolean reverse) {
+		return reverse ? B_TO_A : A_TO_B;
+	}
+}
@@ -0,0 +1,95 @@
+package com.agileasoft.zebra;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The Java Flight Recorder event of one mapping call, of one object or of a whole batch with its number of elements, made by the
+ * application or by a mapper mapping its children.<br>
+ * The event is disabled by default, enable it with the JFR settings, for example
+ * {@code -XX:StartFlightRecording:settings=zebra.jfc} with {@code com.agileasoft.zebra.Mapping#enabled=true} and a threshold. When it
+ * is disabled, a mapping only checks it. The depth of the calls made by a mapper while it maps gives the call tree of a deep
+ * mapping.<br>
+ * Only {@link MappingRecording} calls this class, so a runtime image without the jdk.jfr module never loads it, and the event is
+ * registered only once a recording was started.
+ *
+ * @author amgohan
+ */
+@Name("com.agileasoft.zebra.Mapping")
+@Label("Mapping")
+@Category("Zebra")
+@Description("A mapping call, nested mappings included")
+@Enabled(false)
+@Threshold("0 ms")
+@StackTrace(false)
+final class MappingEvent extends Event {
+
+	// depth of the recorded calls running in each thread.
+	private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+	@Label("Mapper Class")
+	Class<?> mapperClass;
+
+	@Label("Direction")
+	String direction;
+
+	@Label("Elements")
+	int elements;
+
+	@Label("Depth")
+	@Description("0 for a top level call, the depth of the caller plus 1 for a call made by a mapper")
+	int depth;
+
+	/**
+	 * @return the started event of a mapping call or null when the event is disabled.
+	 */
+	static MappingEvent start() {
+		if (!FlightRecorder.isInitialized() || !Type.EVENT_TYPE.isEnabled()) {
+			return null;
+		}
+		final MappingEvent event = new MappingEvent();
+		event.depth = DEPTH.get()[0]++;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * end the event of a mapping call, it is committed if its duration reaches the threshold.
+	 *
+	 * @param event
+	 *            the event returned by start, null does nothing.
+	 * @param mapperClass
+	 *            the class of the called mapper, null when nothing was mapped, the event is then not committed.
+	 * @param direction
+	 *            the called method of the mapper.
+	 * @param elements
+	 *            the number of mapped elements.
+	 */
+	static void finish(final MappingEvent event, final Class<?> mapperClass, final MappingDirection direction, final int elements) {
+		if (event == null) {
+			return;
+		}
+		DEPTH.get()[0]--;
+		event.end();
+		if (mapperClass != null && event.shouldCommit()) {
+			event.mapperClass = mapperClass;
+			event.direction = direction.name();
+			event.elements = elements;
+			event.commit();
+		}
+	}
+
+	// registers the event on the first check made after a recording was started.
+	private static final class Type {
+
+		static final EventType EVENT_TYPE = EventType.getEventType(MappingEvent.class);
+	}
+}
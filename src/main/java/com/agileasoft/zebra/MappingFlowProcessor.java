@@ -0,0 +1,241 @@
+package com.agileasoft.zebra;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Flow.Processor} mapping each element of its publisher for one subscriber.<br>
+ * The demand of the subscriber is forwarded to the publisher as it is, so no element is received before it is requested and
+ * nothing is buffered beyond the current demand. With a batch size greater than 1, the received elements are kept until the batch
+ * is full or until every requested element is received, then the batch is mapped at once and emitted : a slow publisher with an
+ * unbounded demand only sees its elements emitted by full batches or at its completion, since a partial batch is only flushed by
+ * the thread of the publisher.
+ *
+ * @author amgohan
+ * @param <A>
+ *            source class
+ * @param <B>
+ *            destination class
+ */
+@SuppressWarnings("unchecked")
+final class MappingFlowProcessor<A, B> implements Flow.Processor<A, B>, Flow.Subscription {
+
+	private static final Flow.Subscription REJECTED = new Flow.Subscription() {
+
+		@Override
+		public void request(final long n) {
+		}
+
+		@Override
+		public void cancel() {
+		}
+	};
+
+	private final MapperProcessor.BatchMapper elementMapper;
+
+	// null when each element is mapped as soon as it is received, only used by the publisher thread.
+	private final Object[] batch;
+
+	private int batchLength;
+
+	// demand of the subscriber not yet forwarded because the publisher has not called onSubscribe yet.
+	private final AtomicLong pendingDemand = new AtomicLong();
+
+	// elements requested from the publisher and not received yet, Long.MAX_VALUE for an unbounded demand.
+	private final AtomicLong outstanding = new AtomicLong();
+
+	private volatile Flow.Subscription upstream;
+
+	private volatile Flow.Subscriber<? super B> downstream;
+
+	private volatile boolean terminated;
+
+	// terminal signal received before the subscriber, guarded by this.
+	private boolean completedEarly;
+
+	private Throwable failedEarly;
+
+	/**
+	 * @param elementMapper
+	 *            the mapping of the elements, only called by the publisher thread, each mapped batch is recorded once.
+	 * @param batchSize
+	 *            number of elements mapped together, 1 to map each element as soon as it is received.
+	 */
+	MappingFlowProcessor(final MapperProcessor.BatchMapper elementMapper, final int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batchSize must be greater than 0.");
+		}
+		this.elementMapper = elementMapper;
+		this.batch = batchSize > 1 ? new Object[batchSize] : null;
+	}
+
+	@Override
+	public void subscribe(final Flow.Subscriber<? super B> subscriber) {
+		Objects.requireNonNull(subscriber, "subscriber must be not null.");
+		synchronized (this) {
+			if (this.downstream == null) {
+				this.downstream = subscriber;
+				// under the lock so a terminal signal can't reach the subscriber before onSubscribe.
+				subscriber.onSubscribe(this);
+				if (this.failedEarly != null) {
+					subscriber.onError(this.failedEarly);
+				} else if (this.completedEarly) {
+					subscriber.onComplete();
+				}
+				return;
+			}
+		}
+		subscriber.onSubscribe(REJECTED);
+		subscriber.onError(new IllegalStateException("a mapping flow processor accepts only one subscriber."));
+	}
+
+	@Override
+	public void onSubscribe(final Flow.Subscription subscription) {
+		Objects.requireNonNull(subscription, "subscription must be not null.");
+		if (this.upstream != null || this.terminated) {
+			subscription.cancel();
+			return;
+		}
+		this.upstream = subscription;
+		this.forwardDemand();
+	}
+
+	@Override
+	public void onNext(final A item) {
+		if (this.terminated) {
+			return;
+		}
+		final long stillExpected = this.outstanding.updateAndGet(n -> n == Long.MAX_VALUE ? n : n - 1);
+		try {
+			if (this.batch == null) {
+				this.elementMapper.begin();
+				final B mapped;
+				try {
+					mapped = (B) this.elementMapper.apply(item);
+				} finally {
+					this.elementMapper.end();
+				}
+				this.downstream.onNext(mapped);
+				return;
+			}
+			this.batch[this.batchLength++] = item;
+			if (this.batchLength == this.batch.length || stillExpected <= 0) {
+				this.flush();
+			}
+		} catch (final RuntimeException exception) {
+			this.cancelUpstream();
+			this.terminate(exception);
+		}
+	}
+
+	@Override
+	public void onError(final Throwable throwable) {
+		Objects.requireNonNull(throwable, "throwable must be not null.");
+		this.complete(throwable);
+	}
+
+	@Override
+	public void onComplete() {
+		this.complete(null);
+	}
+
+	@Override
+	public void request(final long n) {
+		if (this.terminated) {
+			// a request after cancel or after the terminal signal has no effect.
+			return;
+		}
+		if (n <= 0) {
+			this.cancelUpstream();
+			this.terminate(new IllegalArgumentException("the requested number of elements must be greater than 0."));
+			return;
+		}
+		this.outstanding.accumulateAndGet(n, MappingFlowProcessor::addCapped);
+		this.pendingDemand.accumulateAndGet(n, MappingFlowProcessor::addCapped);
+		this.forwardDemand();
+	}
+
+	@Override
+	public void cancel() {
+		this.terminated = true;
+		this.cancelUpstream();
+	}
+
+	/**
+	 * both request and onSubscribe take the whole pending demand after publishing their part, so no demand is lost or forwarded
+	 * twice when they run at the same time.
+	 */
+	private void forwardDemand() {
+		final Flow.Subscription subscription = this.upstream;
+		if (subscription != null) {
+			final long demand = this.pendingDemand.getAndSet(0);
+			if (demand > 0) {
+				subscription.request(demand);
+			}
+		}
+	}
+
+	private void flush() {
+		this.elementMapper.begin();
+		try {
+			for (int i = 0; i < this.batchLength; i++) {
+				this.batch[i] = this.elementMapper.apply(this.batch[i]);
+			}
+		} finally {
+			this.elementMapper.end();
+		}
+		final int length = this.batchLength;
+		this.batchLength = 0;
+		for (int i = 0; i < length; i++) {
+			final B mapped = (B) this.batch[i];
+			this.batch[i] = null;
+			if (!this.terminated) {
+				this.downstream.onNext(mapped);
+			}
+		}
+	}
+
+	private void complete(final Throwable throwable) {
+		if (this.terminated) {
+			return;
+		}
+		Throwable failure = throwable;
+		if (this.batch != null && this.batchLength > 0) {
+			try {
+				this.flush();
+			} catch (final RuntimeException exception) {
+				failure = exception;
+			}
+		}
+		this.terminate(failure);
+	}
+
+	private synchronized void terminate(final Throwable throwable) {
+		if (this.terminated) {
+			return;
+		}
+		this.terminated = true;
+		final Flow.Subscriber<? super B> subscriber = this.downstream;
+		if (subscriber == null) {
+			this.completedEarly = throwable == null;
+			this.failedEarly = throwable;
+		} else if (throwable != null) {
+			subscriber.onError(throwable);
+		} else {
+			subscriber.onComplete();
+		}
+	}
+
+	private void cancelUpstream() {
+		final Flow.Subscription subscription = this.upstream;
+		if (subscription != null) {
+			subscription.cancel();
+		}
+	}
+
+	private static long addCapped(final long current, final long n) {
+		final long sum = current + n;
+		return sum < 0 ? Long.MAX_VALUE : sum;
+	}
+}
@@ -0,0 +1,105 @@
+package com.agileasoft.zebra;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.agileasoft.zebra.metrics.MappingMetrics;
+
+/**
+ * A mapping from A to B already resolved by {@link MapperProcessor#bind(Class, Class)}.<br>
+ * The mapper and the direction are found once, every call goes straight to the mapper without any lookup. Keep a handle in a field
+ * for call sites where source and destination types never change :
+ *
+ * <pre>
+ * {@code
+ * MappingHandle<UserDto, User> userHandle = mapperProcessor.bind(UserDto.class, User.class);
+ * User user = userHandle.map(userDto);
+ * }
+ * </pre>
+ *
+ * @author amgohan
+ * @param <A>
+ *            source class
+ * @param <B>
+ *            destination class
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public final class MappingHandle<A, B> {
+
+	private final MappingRoute route;
+
+	private final Mapper mapper;
+
+	private final MappingMetrics metrics;
+
+	MappingHandle(final MappingRoute route, final MappingMetrics metrics) {
+		this.route = route;
+		this.mapper = route.getMapper();
+		this.metrics = metrics;
+	}
+
+	/**
+	 * map the source object to an instance of B.
+	 *
+	 * @param sourceObject
+	 *            the source instance of type A.
+	 * @return instance of type B or null if the source is null.
+	 */
+	public B map(final A sourceObject) {
+		if (sourceObject == null) {
+			return null;
+		}
+		final MappingEvent event = MappingRecording.start();
+		if (this.metrics == null && event == null) {
+			return (B) this.route.call(this.mapper, sourceObject, null);
+		}
+		final long[] hopNanos = this.route.newHopNanos();
+		final long start = System.nanoTime();
+		try {
+			return (B) this.route.call(this.mapper, sourceObject, hopNanos);
+		} finally {
+			this.route.record(this.mapper, event, 1, start, hopNanos);
+		}
+	}
+
+	/**
+	 * map the source object into an existing instance of B, the mapper must implement the optional in place mapping.
+	 *
+	 * @param sourceObject
+	 *            the source instance of type A.
+	 * @param destinationObject
+	 *            the existing instance of type B to update.
+	 * @return the updated instance of type B or null if the source is null.
+	 */
+	public B mapInto(final A sourceObject, final B destinationObject) {
+		if (sourceObject == null) {
+			return null;
+		}
+		return (B) this.route.mapInto(sourceObject, destinationObject);
+	}
+
+	/**
+	 * map a list of objects A to a list of objects B, the list is recorded as one call.
+	 *
+	 * @param sourceList
+	 *            list of objects A.
+	 * @return List of type B or null if the source list is null.
+	 */
+	public List<B> mapAll(final List<A> sourceList) {
+		if (sourceList == null) {
+			return null;
+		}
+		final MappingEvent event = MappingRecording.start();
+		final long[] hopNanos = this.route.newHopNanos();
+		final long start = this.metrics == null ? 0 : System.nanoTime();
+		final List<B> returnList = new ArrayList<B>(sourceList.size());
+		try {
+			for (final A a : sourceList) {
+				returnList.add(a == null ? null : (B) this.route.call(this.mapper, a, hopNanos));
+			}
+		} finally {
+			this.route.record(this.mapper, event, sourceList.size(), start, hopNanos);
+		}
+		return returnList;
+	}
+}
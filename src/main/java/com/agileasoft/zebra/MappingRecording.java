@@ -0,0 +1,41 @@
+package com.agileasoft.zebra;
+
+/**
+ * The entry point of the {@link MappingEvent} of the mapping calls, without any dependency on JFR.<br>
+ * When the jdk.jfr module is missing from the runtime image, for example an image built by jlink without it, every call is a no-op
+ * and no JFR class is ever loaded : the callers only keep the started event in variables typed MappingEvent, which are always null.
+ *
+ * @author amgohan
+ */
+final class MappingRecording {
+
+	private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+	private MappingRecording() {
+	}
+
+	/**
+	 * @return the started event of a mapping call or null when the event is disabled or JFR is missing.
+	 */
+	static MappingEvent start() {
+		return AVAILABLE ? MappingEvent.start() : null;
+	}
+
+	/**
+	 * end the event of a mapping call, see {@link MappingEvent#finish(MappingEvent, Class, MappingDirection, int)}.
+	 *
+	 * @param event
+	 *            the event returned by start, null does nothing.
+	 * @param mapperClass
+	 *            the class of the called mapper, null when nothing was mapped.
+	 * @param direction
+	 *            the called method of the mapper.
+	 * @param elements
+	 *            the number of mapped elements.
+	 */
+	static void finish(final MappingEvent event, final Class<?> mapperClass, final MappingDirection direction, final int elements) {
+		if (event != null) {
+			MappingEvent.finish(event, mapperClass, direction, elements);
+		}
+	}
+}
@@ -0,0 +1,258 @@
+package com.agileasoft.zebra;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.agileasoft.zebra.metrics.MappingMetrics;
+
+/**
+ * A resolved way to map a source class to a destination class : the mapper to call and the direction (mapAToB or mapBToA).<br>
+ * When more than one mapper is registered for the same pair of classes, the route is ambiguous and every call will throw an
+ * IllegalStateException.
+ *
+ * @author amgohan
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+final class MappingRoute {
+
+	private final MapperHolder holder;
+
+	private final boolean reverse;
+
+	private final List<MapperHolder> candidates;
+
+	private final MappingMetrics metrics;
+
+	// the registered routes called by a chain, null for a registered mapper.
+	private final MappingRoute[] hops;
+
+	// computed by the first call of updatesInPlace, the mapper of a route never changes.
+	private volatile Boolean updatesInPlace;
+
+	private MappingRoute(final MapperHolder holder,
+			final boolean reverse,
+			final List<MapperHolder> candidates,
+			final MappingMetrics metrics,
+			final MappingRoute[] hops) {
+		this.holder = holder;
+		this.reverse = reverse;
+		this.candidates = candidates;
+		this.metrics = metrics;
+		this.hops = hops;
+	}
+
+	/**
+	 * create a route for the registered mappers of a pair of classes.
+	 *
+	 * @param mappers
+	 *            the holders of the mappers registered for the pair.
+	 * @param reverse
+	 *            true if the route calls mapBToA.
+	 * @param metrics
+	 *            the metrics receiving every call or null.
+	 * @return the route.
+	 */
+	static MappingRoute of(final List<MapperHolder> mappers, final boolean reverse, final MappingMetrics metrics) {
+		if (mappers.size() > 1) {
+			return new MappingRoute(null, reverse, mappers, metrics, null);
+		}
+		return new MappingRoute(mappers.get(0), reverse, null, metrics, null);
+	}
+
+	/**
+	 * create a route calling other routes one after the other, it records nothing itself since every hop is recorded.
+	 *
+	 * @param hops
+	 *            the registered routes from the source class to the destination class, at least two.
+	 * @return the route.
+	 */
+	static MappingRoute chain(final List<MappingRoute> hops) {
+		final MappingRoute[] hopArray = hops.toArray(new MappingRoute[hops.size()]);
+		return new MappingRoute(MapperHolder.of(new ChainedMapper(hopArray)), false, null, null, hopArray);
+	}
+
+	/**
+	 * map the source object using the resolved mapper and direction.
+	 *
+	 * @param source
+	 *            the source instance.
+	 * @return the mapped instance.
+	 */
+	Object map(final Object source) {
+		final Mapper resolved = this.getMapper();
+		if (this.hops != null) {
+			return resolved.mapAToB(source);
+		}
+		final MappingEvent event = MappingRecording.start();
+		if (this.metrics == null && event == null) {
+			return this.reverse ? resolved.mapBToA(source) : resolved.mapAToB(source);
+		}
+		final long start = System.nanoTime();
+		try {
+			return this.reverse ? resolved.mapBToA(source) : resolved.mapAToB(source);
+		} finally {
+			this.record(resolved, event, 1, start);
+		}
+	}
+
+	/**
+	 * map the source object into an existing destination using the resolved mapper and direction.
+	 *
+	 * @param source
+	 *            the source instance.
+	 * @param destination
+	 *            the existing destination instance.
+	 * @return the updated destination.
+	 */
+	Object mapInto(final Object source, final Object destination) {
+		final Mapper resolved = this.getMapper();
+		if (this.hops != null) {
+			return resolved.mapAToB(source, destination);
+		}
+		final MappingEvent event = MappingRecording.start();
+		if (this.metrics == null && event == null) {
+			return this.reverse ? resolved.mapBToA(source, destination) : resolved.mapAToB(source, destination);
+		}
+		final long start = System.nanoTime();
+		try {
+			return this.reverse ? resolved.mapBToA(source, destination) : resolved.mapAToB(source, destination);
+		} finally {
+			this.record(resolved, event, 1, start);
+		}
+	}
+
+	/**
+	 * map one element of a batch without recording it, the batch is recorded once by {@link #record(Mapper, MappingEvent, int, long, long[])}.
+	 *
+	 * @param resolved
+	 *            the mapper of this route.
+	 * @param source
+	 *            the source instance, not null.
+	 * @param hopNanos
+	 *            the time spent in each hop of a chain, increased by this call, null to measure nothing.
+	 * @return the mapped instance.
+	 */
+	Object call(final Mapper resolved, final Object source, final long[] hopNanos) {
+		if (this.hops == null) {
+			return this.reverse ? resolved.mapBToA(source) : resolved.mapAToB(source);
+		}
+		Object mapped = source;
+		for (int i = 0; i < this.hops.length && mapped != null; i++) {
+			final MappingRoute hop = this.hops[i];
+			if (hopNanos == null) {
+				mapped = hop.call(hop.getMapper(), mapped, null);
+			} else {
+				final long start = System.nanoTime();
+				mapped = hop.call(hop.getMapper(), mapped, null);
+				hopNanos[i] += System.nanoTime() - start;
+			}
+		}
+		return mapped;
+	}
+
+	/**
+	 * @return the array receiving the time spent in each hop of a chain when the batch is measured, null otherwise.
+	 */
+	long[] newHopNanos() {
+		return this.hops == null || this.hops[0].metrics == null ? null : new long[this.hops.length];
+	}
+
+	/**
+	 * record a batch of elements mapped by {@link #call(Mapper, Object, long[])} as one call : the metrics of a chain get each hop
+	 * with its own time, the event gets the route.
+	 *
+	 * @param resolved
+	 *            the mapper of this route.
+	 * @param event
+	 *            the event started with the batch or null.
+	 * @param elements
+	 *            the number of elements of the batch.
+	 * @param start
+	 *            the start of the batch in nanoseconds, used only with metrics.
+	 * @param hopNanos
+	 *            the time spent in each hop of a chain or null.
+	 */
+	void record(final Mapper resolved, final MappingEvent event, final int elements, final long start, final long[] hopNanos) {
+		if (this.hops == null) {
+			this.record(resolved, event, elements, start);
+			return;
+		}
+		if (hopNanos != null) {
+			for (int i = 0; i < this.hops.length; i++) {
+				this.hops[i].metrics.record(this.hops[i].getMapper().getMapperClass(), MappingDirection.of(this.hops[i].reverse), elements, hopNanos[i]);
+			}
+		}
+		MappingRecording.finish(event, this.getMapperClass(), this.getDirection(), elements);
+	}
+
+	private void record(final Mapper resolved, final MappingEvent event, final int elements, final long start) {
+		if (this.metrics != null) {
+			this.metrics.record(resolved.getMapperClass(), MappingDirection.of(this.reverse), elements, System.nanoTime() - start);
+		}
+		MappingRecording.finish(event, resolved.getMapperClass(), MappingDirection.of(this.reverse), elements);
+	}
+
+	/**
+	 * @return the class of the mapper reported for this route, the mapper of the last hop for a chain since it creates the
+	 *         destination.
+	 */
+	Class<? extends Mapper> getMapperClass() {
+		return this.hops == null ? this.getMapper().getMapperClass() : this.hops[this.hops.length - 1].getMapperClass();
+	}
+
+	/**
+	 * @return true if {@link #mapInto(Object, Object)} updates the destination, false if the mapper doesn't implement it.
+	 */
+	boolean updatesInPlace() {
+		Boolean updates = this.updatesInPlace;
+		if (updates == null) {
+			updates = this.getMapper().updatesInPlace(this.reverse);
+			this.updatesInPlace = updates;
+		}
+		return updates;
+	}
+
+	/**
+	 * @return the direction reported for this route, the one of the last hop for a chain.
+	 */
+	MappingDirection getDirection() {
+		return this.hops == null ? MappingDirection.of(this.reverse) : this.hops[this.hops.length - 1].getDirection();
+	}
+
+	/**
+	 * @return true if the route calls other routes, each one recording its own calls.
+	 */
+	boolean isChain() {
+		return this.hops != null;
+	}
+
+	/**
+	 * @return the unique mapper of this route, a lazily registered mapper is created by its first call.
+	 */
+	Mapper getMapper() {
+		if (this.holder == null) {
+			final List<String> mappersName = new ArrayList<String>(this.candidates.size());
+			for (final MapperHolder candidate : this.candidates) {
+				// the error must not create the lazy mappers, a lazy mapper registered without its class is only named as such.
+				final Class<? extends Mapper> mapperClass = candidate.getMapperClass();
+				mappersName.add(mapperClass != null ? mapperClass.getCanonicalName() : "a lazy mapper not created yet");
+			}
+			throw new IllegalStateException("there are two registred mappers : " + mappersName + ". Please call straightMap or reverseMap and specify one of the concret Mappers.");
+		}
+		return this.holder.get();
+	}
+
+	/**
+	 * @return true if more than one mapper is registered for the pair of classes of this route.
+	 */
+	boolean isAmbiguous() {
+		return this.holder == null;
+	}
+
+	/**
+	 * @return true if the route calls mapBToA.
+	 */
+	boolean isReverse() {
+		return this.reverse;
+	}
+}
@@ -0,0 +1,34 @@
+package com.agileasoft.zebra;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keep the results of a mapper in a bounded cache, for pure mappings over a small domain like reference data.<br>
+ * mapAToB and mapBToA return the same destination instance for equal sources (or the same source instance with identity keys),
+ * until it is evicted : the least recently used results are evicted when the cache is full. The cached destinations are shared,
+ * use it only for immutable destinations or destinations which are never modified. The mapping into an existing destination is
+ * never cached.<br>
+ * The same cache can be enabled without annotation by {@link MapperFactory#registerMemoized(Mapper, int, boolean)}, the hits and
+ * misses are given by {@link MapperProcessor#getCacheStatistics(Class)}.
+ *
+ * @author amgohan
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Memoized {
+
+	/**
+	 * @return the maximum number of results kept for each direction.
+	 */
+	int maximumSize() default 1024;
+
+	/**
+	 * @return true to compare the sources by identity instead of equals and hashCode.
+	 */
+	boolean identity() default false;
+}
@@ -0,0 +1,99 @@
+package com.agileasoft.zebra;
+
+import java.util.function.Function;
+
+/**
+ * Wrap a registered mapper to keep its results in one {@link MappingCache} per direction, see {@link Memoized}.<br>
+ * The processor stores the wrapper in place of the mapper, so map, bind, straightMap and reverseMap all use the caches, while the
+ * metrics and the errors still give the class of the wrapped mapper.
+ *
+ * @author amgohan
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+final class MemoizingMapper extends Mapper<Object, Object> {
+
+	private final Mapper delegate;
+
+	private final MappingCache straightCache;
+
+	private final MappingCache reverseCache;
+
+	// kept in fields so a call allocates no method reference.
+	private final Function<Object, Object> straightMapping;
+
+	private final Function<Object, Object> reverseMapping;
+
+	private MemoizingMapper(final Mapper delegate, final int maximumSize, final boolean identity) {
+		this.delegate = delegate;
+		this.straightMapping = delegate::mapAToB;
+		this.reverseMapping = delegate::mapBToA;
+		this.straightCache = new MappingCache(maximumSize, identity);
+		this.reverseCache = new MappingCache(maximumSize, identity);
+	}
+
+	/**
+	 * wrap the mapper when it must be memoized.
+	 *
+	 * @param mapper
+	 *            the registered mapper.
+	 * @param maximumSize
+	 *            the maximum number of results kept per direction, 0 to use the {@link Memoized} annotation of the mapper class.
+	 * @param identity
+	 *            true to compare the sources by identity, ignored when maximumSize is 0.
+	 * @return the wrapper or the mapper itself if it is not memoized.
+	 */
+	static Mapper memoize(final Mapper mapper, final int maximumSize, final boolean identity) {
+		if (maximumSize > 0) {
+			return new MemoizingMapper(mapper, maximumSize, identity);
+		}
+		final Memoized memoized = mapper.getClass().getAnnotation(Memoized.class);
+		return memoized == null ? mapper : new MemoizingMapper(mapper, memoized.maximumSize(), memoized.identity());
+	}
+
+	@Override
+	public Object mapAToB(final Object source) {
+		return source == null ? this.delegate.mapAToB(null) : this.straightCache.get(source, this.straightMapping);
+	}
+
+	@Override
+	public Object mapBToA(final Object source) {
+		return source == null ? this.delegate.mapBToA(null) : this.reverseCache.get(source, this.reverseMapping);
+	}
+
+	@Override
+	public Object mapAToB(final Object source, final Object destination) {
+		return this.delegate.mapAToB(source, destination);
+	}
+
+	@Override
+	public Object mapBToA(final Object source, final Object destination) {
+		return this.delegate.mapBToA(source, destination);
+	}
+
+	@Override
+	public void setMapper(final MapperProcessor mapper) {
+		super.setMapper(mapper);
+		this.delegate.setMapper(mapper);
+	}
+
+	@Override
+	boolean updatesInPlace(final boolean reverse) {
+		return this.delegate.updatesInPlace(reverse);
+	}
+
+	@Override
+	Class<? extends Mapper> getMapperClass() {
+		return this.delegate.getClass();
+	}
+
+	/**
+	 * @return the counters of both caches.
+	 */
+	MappingCacheStatistics statistics() {
+		return new MappingCacheStatistics(	this.delegate.getClass(),
+											this.straightCache.hits() + this.reverseCache.hits(),
+											this.straightCache.misses() + this.reverseCache.misses(),
+											this.straightCache.evictions() + this.reverseCache.evictions(),
+											this.straightCache.size() + this.reverseCache.size());
+	}
+}
@@ -0,0 +1,120 @@
+package com.agileasoft.zebra;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Map a list with a fork join pool.<br>
+ * The list is split in ranges until a range is not bigger than the threshold, each range is mapped sequentially and written
+ * directly at its own indexes of one pre-sized result array. The order of the source list is kept without any merge step.
+ *
+ * @author amgohan
+ */
+final class ParallelMapping {
+
+	private ParallelMapping() {
+	}
+
+	/**
+	 * map every element of the source list in parallel.
+	 *
+	 * @param sourceList
+	 *            list of objects to map.
+	 * @param elementMapper
+	 *            the mapping of one element.
+	 * @param pool
+	 *            the pool running the tasks.
+	 * @param threshold
+	 *            maximum number of elements mapped sequentially by one task.
+	 * @return the mapped elements, at the same indexes as in the source list.
+	 */
+	static Object[] map(final List<?> sourceList, final Function<Object, Object> elementMapper, final ForkJoinPool pool, final int threshold) {
+		return map(sourceList, (source, result, from, to) -> {
+			for (int i = from; i < to; i++) {
+				result[i] = elementMapper.apply(source.get(i));
+			}
+		}, pool, threshold);
+	}
+
+	/**
+	 * map every range of the source list in parallel.
+	 *
+	 * @param sourceList
+	 *            list of objects to map.
+	 * @param rangeMapper
+	 *            the mapping of one range.
+	 * @param pool
+	 *            the pool running the tasks.
+	 * @param threshold
+	 *            maximum number of elements mapped sequentially by one task.
+	 * @return the mapped elements, at the same indexes as in the source list.
+	 */
+	static Object[] map(final List<?> sourceList, final RangeMapper rangeMapper, final ForkJoinPool pool, final int threshold) {
+		// get(index) must be cheap for the tasks, copy once the lists without random access like LinkedList.
+		final List<?> source = sourceList instanceof RandomAccess ? sourceList : Arrays.asList(sourceList.toArray());
+		final Object[] result = new Object[source.size()];
+		pool.invoke(new MapRangeTask(source, result, rangeMapper, threshold, 0, result.length));
+		return result;
+	}
+
+	/**
+	 * The mapping of the elements of a range run by one task.
+	 */
+	interface RangeMapper {
+
+		/**
+		 * map the elements from the index from (included) to the index to (excluded).
+		 *
+		 * @param source
+		 *            the source list, with a cheap get(index).
+		 * @param result
+		 *            the array receiving each mapped element at the index of its source.
+		 * @param from
+		 *            the first index of the range.
+		 * @param to
+		 *            the index after the last one of the range.
+		 */
+		void map(List<?> source, Object[] result, int from, int to);
+	}
+
+	private static final class MapRangeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<?> source;
+
+		private final Object[] result;
+
+		private final RangeMapper rangeMapper;
+
+		private final int threshold;
+
+		private final int from;
+
+		private final int to;
+
+		MapRangeTask(final List<?> source, final Object[] result, final RangeMapper rangeMapper, final int threshold, final int from, final int to) {
+			this.source = source;
+			this.result = result;
+			this.rangeMapper = rangeMapper;
+			this.threshold = threshold;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= this.threshold) {
+				this.rangeMapper.map(this.source, this.result, this.from, this.to);
+				return;
+			}
+			final int middle = (this.from + this.to) >>> 1;
+			invokeAll(	new MapRangeTask(this.source, this.result, this.rangeMapper, this.threshold, this.from, middle),
+						new MapRangeTask(this.source, this.result, this.rangeMapper, this.threshold, middle, this.to));
+		}
+	}
+}
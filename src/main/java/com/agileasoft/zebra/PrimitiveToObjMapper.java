@@ -0,0 +1,67 @@
+package com.agileasoft.zebra;
+
+/**
+ * The common part of {@link IntToObjMapper}, {@link LongToObjMapper} and {@link DoubleToObjMapper} : a null boxed value is mapped
+ * to null in both directions, and the batch methods of the MapperProcessor read or write the elements of a primitive array through
+ * mapElement and mapToElement, so the subclasses only unbox, box and call their primitive methods.
+ *
+ * @author amgohan
+ * @param <P>
+ *            the wrapper class of the primitive type.
+ * @param <B>
+ *            destination class
+ */
+abstract class PrimitiveToObjMapper<P, B> extends Mapper<P, B> {
+
+	PrimitiveToObjMapper() {
+	}
+
+	/**
+	 * @param source
+	 *            a not null boxed value.
+	 * @return the mapped instance.
+	 */
+	abstract B mapValue(P source);
+
+	/**
+	 * @param source
+	 *            a not null instance of B.
+	 * @return the boxed value.
+	 */
+	abstract P mapToValue(B source);
+
+	/**
+	 * map an element of a primitive array without boxing it.
+	 *
+	 * @param values
+	 *            the primitive array of the type of this mapper.
+	 * @param index
+	 *            the index of the element.
+	 * @return the mapped instance.
+	 */
+	abstract B mapElement(Object values, int index);
+
+	/**
+	 * map back an instance of B into an element of a primitive array without boxing it.
+	 *
+	 * @param source
+	 *            a not null instance of B.
+	 * @param values
+	 *            the primitive array of the type of this mapper.
+	 * @param index
+	 *            the index of the element.
+	 */
+	abstract void mapToElement(B source, Object values, int index);
+
+	@Override
+	public final B mapAToB(final P source) {
+
+		return source == null ? null : this.mapValue(source);
+	}
+
+	@Override
+	public final P mapBToA(final B source) {
+
+		return source == null ? null : this.mapToValue(source);
+	}
+}
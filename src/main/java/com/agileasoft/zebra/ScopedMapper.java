@@ -0,0 +1,193 @@
+package com.agileasoft.zebra;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dispatch every call to an instance confined to the calling thread or borrowed from a pool, see {@link MapperScope}.<br>
+ * Every instance is created by the supplier on first use and gets the processor before its first call. A mapper annotated with
+ * {@link Memoized} is memoized inside the scope : each instance keeps its own cache.
+ *
+ * @author amgohan
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+abstract class ScopedMapper extends Mapper<Object, Object> {
+
+	// the idle instances kept by a POOLED mapper, not less than 8 so a few more threads than processors don't recreate instances.
+	static final int MAX_IDLE = Math.max(8, Runtime.getRuntime().availableProcessors());
+
+	private final Supplier<? extends Mapper> supplier;
+
+	// the registered class, else the class of the first instance, reported by the metrics and the errors.
+	private volatile Class<? extends Mapper> mapperClass;
+
+	ScopedMapper(final Supplier<? extends Mapper> supplier, final Class<? extends Mapper> mapperClass) {
+		this.supplier = supplier;
+		this.mapperClass = mapperClass;
+	}
+
+	/**
+	 * @param supplier
+	 *            create the instances, it must not return null.
+	 * @param scope
+	 *            THREAD or POOLED.
+	 * @param mapperClass
+	 *            the class of the instances or null if it is unknown.
+	 * @return the mapper dispatching to the instances of the scope.
+	 */
+	static ScopedMapper of(final Supplier<? extends Mapper> supplier, final MapperScope scope, final Class<? extends Mapper> mapperClass) {
+		switch (scope) {
+			case THREAD:
+				return new ThreadScopedMapper(supplier, mapperClass);
+			case POOLED:
+				return new PooledMapper(supplier, mapperClass);
+			default:
+				throw new IllegalArgumentException("a " + scope + " mapper has only one instance.");
+		}
+	}
+
+	/**
+	 * @return an instance for the current call.
+	 */
+	abstract Mapper acquire();
+
+	/**
+	 * give back the instance of a finished call.
+	 *
+	 * @param instance
+	 *            the instance returned by acquire.
+	 */
+	abstract void release(Mapper instance);
+
+	final Mapper create() {
+		final Mapper created = Objects.requireNonNull(this.supplier.get(), "The mapper supplier returned null.");
+		final Class<? extends Mapper> registeredClass = this.mapperClass;
+		if (registeredClass == null) {
+			this.mapperClass = created.getMapperClass();
+		} else if (!registeredClass.isInstance(created)) {
+			throw new IllegalStateException("The mapper supplier returned a "
+					+ created.getClass().getCanonicalName()
+					+ " which is not a "
+					+ registeredClass.getCanonicalName()
+					+ ".");
+		}
+		final Mapper instance = MemoizingMapper.memoize(created, 0, false);
+		instance.setMapper(this.mapper);
+		return instance;
+	}
+
+	@Override
+	Class<? extends Mapper> getMapperClass() {
+		return this.mapperClass;
+	}
+
+	@Override
+	boolean updatesInPlace(final boolean reverse) {
+		final Mapper instance = this.acquire();
+		try {
+			return instance.updatesInPlace(reverse);
+		} finally {
+			this.release(instance);
+		}
+	}
+
+	@Override
+	public Object mapAToB(final Object source) {
+		final Mapper instance = this.acquire();
+		try {
+			return instance.mapAToB(source);
+		} finally {
+			this.release(instance);
+		}
+	}
+
+	@Override
+	public Object mapBToA(final Object source) {
+		final Mapper instance = this.acquire();
+		try {
+			return instance.mapBToA(source);
+		} finally {
+			this.release(instance);
+		}
+	}
+
+	@Override
+	public Object mapAToB(final Object source, final Object destination) {
+		final Mapper instance = this.acquire();
+		try {
+			return instance.mapAToB(source, destination);
+		} finally {
+			this.release(instance);
+		}
+	}
+
+	@Override
+	public Object mapBToA(final Object source, final Object destination) {
+		final Mapper instance = this.acquire();
+		try {
+			return instance.mapBToA(source, destination);
+		} finally {
+			this.release(instance);
+		}
+	}
+
+	/**
+	 * The instances are kept in a ThreadLocal and never removed : each thread keeps its instance until it dies, even once the
+	 * MapperProcessor is discarded, so the threads of a pool keep theirs as long as the pool.
+	 */
+	private static final class ThreadScopedMapper extends ScopedMapper {
+
+		private final ThreadLocal<Mapper> instances = ThreadLocal.withInitial(this::create);
+
+		ThreadScopedMapper(final Supplier<? extends Mapper> supplier, final Class<? extends Mapper> mapperClass) {
+			super(supplier, mapperClass);
+		}
+
+		@Override
+		Mapper acquire() {
+			return this.instances.get();
+		}
+
+		@Override
+		void release(final Mapper instance) {
+			// the instance stays with its thread.
+		}
+	}
+
+	/**
+	 * At most {@link #MAX_IDLE} instances are kept idle : an instance given back when the pool is full is dropped, so a burst of
+	 * concurrent or nested mappings does not keep all its instances for the life of the processor.
+	 */
+	private static final class PooledMapper extends ScopedMapper {
+
+		private final Queue<Mapper> idle = new ConcurrentLinkedQueue<Mapper>();
+
+		private final AtomicInteger idleCount = new AtomicInteger();
+
+		PooledMapper(final Supplier<? extends Mapper> supplier, final Class<? extends Mapper> mapperClass) {
+			super(supplier, mapperClass);
+		}
+
+		@Override
+		Mapper acquire() {
+			final Mapper instance = this.idle.poll();
+			if (instance == null) {
+				return this.create();
+			}
+			this.idleCount.decrementAndGet();
+			return instance;
+		}
+
+		@Override
+		void release(final Mapper instance) {
+			if (this.idleCount.incrementAndGet() > MAX_IDLE) {
+				this.idleCount.decrementAndGet();
+				return;
+			}
+			this.idle.offer(instance);
+		}
+	}
+}
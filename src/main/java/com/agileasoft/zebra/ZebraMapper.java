@@ -0,0 +1,22 @@
+package com.agileasoft.zebra;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark a mapper to be registered by the generated MapperRegistry.<br>
+ * At compile time, the zebra annotation processor resolves the source and destination classes of every annotated mapper and
+ * generates a {@link MapperRegistry} which registers them without reflection. Load it with
+ * {@link MapperFactory#registerDiscovered()}.<br>
+ * An annotated mapper must be a public concrete class, top level or static nested, with a public no-arg constructor.
+ *
+ * @author amgohan
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface ZebraMapper {
+}
@@ -0,0 +1,98 @@
+package com.agileasoft.zebra.metrics;
+
+import com.agileasoft.zebra.MappingDirection;
+
+/**
+ * The values recorded by {@link MappingStatistics} for one mapper class and one direction at the time of the snapshot.
+ *
+ * @author amgohan
+ */
+public final class MapperStatisticsSnapshot {
+
+	private final Class<?> mapperClass;
+
+	private final MappingDirection direction;
+
+	private final long invocations;
+
+	private final long elements;
+
+	private final long totalNanos;
+
+	private final long[] latencyHistogram;
+
+	MapperStatisticsSnapshot(final Class<?> mapperClass,
+			final MappingDirection direction,
+			final long invocations,
+			final long elements,
+			final long totalNanos,
+			final long[] latencyHistogram) {
+		this.mapperClass = mapperClass;
+		this.direction = direction;
+		this.invocations = invocations;
+		this.elements = elements;
+		this.totalNanos = totalNanos;
+		this.latencyHistogram = latencyHistogram;
+	}
+
+	public Class<?> getMapperClass() {
+		return this.mapperClass;
+	}
+
+	public MappingDirection getDirection() {
+		return this.direction;
+	}
+
+	public long getInvocations() {
+		return this.invocations;
+	}
+
+	public long getElements() {
+		return this.elements;
+	}
+
+	public long getTotalNanos() {
+		return this.totalNanos;
+	}
+
+	/**
+	 * @return the number of calls per latency bucket : bucket i counts the calls that took between 2^(i-1) and 2^i - 1 nanoseconds.
+	 */
+	public long[] getLatencyHistogram() {
+		return this.latencyHistogram.clone();
+	}
+
+	/**
+	 * @param percentile
+	 *            a percentile between 0 and 100.
+	 * @return an upper bound in nanoseconds of the latency at this percentile, precise to a power of two.
+	 */
+	public long getLatencyPercentileNanos(final double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("percentile must be between 0 and 100.");
+		}
+		final long rank = (long) Math.ceil(this.invocations * percentile / 100);
+		long count = 0;
+		for (int i = 0; i < this.latencyHistogram.length; i++) {
+			count += this.latencyHistogram[i];
+			if (count >= rank && count > 0) {
+				return i == 0 ? 0 : (i == this.latencyHistogram.length - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString() {
+		return this.mapperClass.getName()
+				+ "."
+				+ this.direction
+				+ "[invocations="
+				+ this.invocations
+				+ ", elements="
+				+ this.elements
+				+ ", totalNanos="
+				+ this.totalNanos
+				+ "]";
+	}
+}
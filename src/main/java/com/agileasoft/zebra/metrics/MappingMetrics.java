@@ -0,0 +1,28 @@
+package com.agileasoft.zebra.metrics;
+
+import com.agileasoft.zebra.MappingDirection;
+
+/**
+ * Receive every mapping call made through a MapperProcessor built with {@link com.agileasoft.zebra.MapperFactory#metrics(MappingMetrics)}.
+ * <br>
+ * Implementations are called from all mapping threads and must be thread safe and cheap. When no metrics are set, nothing is
+ * measured. {@link MappingStatistics} is the default implementation.
+ *
+ * @author amgohan
+ */
+public interface MappingMetrics {
+
+	/**
+	 * record one call of a mapper.
+	 *
+	 * @param mapperClass
+	 *            the class of the called mapper.
+	 * @param direction
+	 *            the called method of the mapper.
+	 * @param elements
+	 *            the number of mapped elements, 1 for a single object, the size of the list for a list call.
+	 * @param durationNanos
+	 *            the duration of the call, nested mappings included.
+	 */
+	void record(Class<?> mapperClass, MappingDirection direction, int elements, long durationNanos);
+}
@@ -0,0 +1,99 @@
+package com.agileasoft.zebra.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.agileasoft.zebra.MappingDirection;
+
+/**
+ * Default MappingMetrics : invocation count, element count, total duration and a latency histogram per mapper class and direction.
+ * <br>
+ * All counters are striped LongAdders, so threads mapping at the same time don't contend. The histogram has one bucket per power of
+ * two of nanoseconds. Call {@link #snapshot()} to export the current values to any monitoring system.
+ *
+ * @author amgohan
+ */
+public class MappingStatistics implements MappingMetrics {
+
+	static final int BUCKETS = 64;
+
+	private final ConcurrentMap<Class<?>, Counters[]> counters = new ConcurrentHashMap<Class<?>, Counters[]>();
+
+	@Override
+	public void record(final Class<?> mapperClass, final MappingDirection direction, final int elements, final long durationNanos) {
+		Counters[] mapperCounters = this.counters.get(mapperClass);
+		if (mapperCounters == null) {
+			mapperCounters = this.counters.computeIfAbsent(mapperClass, key -> new Counters[] { new Counters(), new Counters() });
+		}
+		mapperCounters[direction.ordinal()].record(elements, durationNanos);
+	}
+
+	/**
+	 * @return the current values of every mapper and direction called at least once.
+	 */
+	public List<MapperStatisticsSnapshot> snapshot() {
+		final List<MapperStatisticsSnapshot> snapshots = new ArrayList<MapperStatisticsSnapshot>();
+		for (final Entry<Class<?>, Counters[]> entry : this.counters.entrySet()) {
+			for (final MappingDirection direction : MappingDirection.values()) {
+				final Counters directionCounters = entry.getValue()[direction.ordinal()];
+				final long invocations = directionCounters.invocations.sum();
+				if (invocations > 0) {
+					snapshots.add(directionCounters.snapshot(entry.getKey(), direction, invocations));
+				}
+			}
+		}
+		return snapshots;
+	}
+
+	/**
+	 * forget all recorded values.
+	 */
+	public void reset() {
+		this.counters.clear();
+	}
+
+	/**
+	 * @param durationNanos
+	 *            a duration.
+	 * @return the index of the histogram bucket : bucket i counts the durations between 2^(i-1) and 2^i - 1 nanoseconds.
+	 */
+	static int bucket(final long durationNanos) {
+		return durationNanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(durationNanos));
+	}
+
+	private static final class Counters {
+
+		private final LongAdder invocations = new LongAdder();
+
+		private final LongAdder elements = new LongAdder();
+
+		private final LongAdder totalNanos = new LongAdder();
+
+		private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+		Counters() {
+			for (int i = 0; i < BUCKETS; i++) {
+				this.histogram[i] = new LongAdder();
+			}
+		}
+
+		void record(final int elementCount, final long durationNanos) {
+			this.invocations.increment();
+			this.elements.add(elementCount);
+			this.totalNanos.add(durationNanos);
+			this.histogram[bucket(durationNanos)].increment();
+		}
+
+		MapperStatisticsSnapshot snapshot(final Class<?> mapperClass, final MappingDirection direction, final long invocationCount) {
+			final long[] buckets = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) {
+				buckets[i] = this.histogram[i].sum();
+			}
+			return new MapperStatisticsSnapshot(mapperClass, direction, invocationCount, this.elements.sum(), this.totalNanos.sum(), buckets);
+		}
+	}
+}
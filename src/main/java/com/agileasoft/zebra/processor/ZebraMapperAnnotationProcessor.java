@@ -0,0 +1,253 @@
+package com.agileasoft.zebra.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generate a MapperRegistry for the mappers annotated with {@code @ZebraMapper}.<br>
+ * The source and destination classes of each mapper are resolved at compile time, through any intermediate generic superclass, and
+ * the generated registry registers every mapper with {@code MapperFactory.register(Class, Class, Mapper)} : no reflection and no
+ * classpath scanning at startup. The registry is declared in META-INF/services/com.agileasoft.zebra.MapperRegistry.<br>
+ * The generated class is {@code ZebraMapperRegistry_<hash>} in the package of the first annotated mapper, where the hash is taken from
+ * the names of the mappers it registers so two modules sharing a package don't generate the same class, or the class named by the
+ * {@code zebra.registry} option.<br>
+ * The processor is aggregating : a registry lists every mapper of the compilation, so each annotated mapper is passed as an originating
+ * element and an incremental build must run the processor on all of them again (Gradle reads the category from
+ * META-INF/gradle/incremental.annotation.processors).
+ *
+ * @author amgohan
+ */
+@SupportedAnnotationTypes(ZebraMapperAnnotationProcessor.ZEBRA_MAPPER)
+@SupportedOptions(ZebraMapperAnnotationProcessor.REGISTRY_OPTION)
+public class ZebraMapperAnnotationProcessor extends AbstractProcessor {
+
+	static final String ZEBRA_MAPPER = "com.agileasoft.zebra.ZebraMapper";
+
+	static final String REGISTRY_OPTION = "zebra.registry";
+
+	private static final String MAPPER = "com.agileasoft.zebra.Mapper";
+
+	private static final String MAPPER_REGISTRY = "com.agileasoft.zebra.MapperRegistry";
+
+	private final Set<String> generatedRegistries = new TreeSet<String>();
+
+	private final List<Element> originatingElements = new ArrayList<Element>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			this.writeServiceFile();
+			return false;
+		}
+		final TypeElement annotation = this.processingEnv.getElementUtils().getTypeElement(ZEBRA_MAPPER);
+		if (annotation == null) {
+			return false;
+		}
+		final List<String[]> mappers = new ArrayList<String[]>();
+		final List<Element> elements = new ArrayList<Element>();
+		for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+			final String[] mapper = this.resolve(element);
+			if (mapper != null) {
+				mappers.add(mapper);
+				elements.add(element);
+			}
+		}
+		if (!mappers.isEmpty()) {
+			Collections.sort(mappers, new Comparator<String[]>() {
+
+				@Override
+				public int compare(final String[] first, final String[] second) {
+					return first[0].compareTo(second[0]);
+				}
+			});
+			this.writeRegistry(mappers, elements.toArray(new Element[elements.size()]));
+			this.originatingElements.addAll(elements);
+		}
+		return true;
+	}
+
+	/**
+	 * @return the mapper class name, the source class name, the destination class name and the package of the mapper, or null if the
+	 *         element is not a valid mapper (an error is reported).
+	 */
+	private String[] resolve(final Element element) {
+		if (element.getKind() != ElementKind.CLASS) {
+			this.error(element, "@ZebraMapper can only annotate a class.");
+			return null;
+		}
+		final TypeElement mapperElement = (TypeElement) element;
+		if (mapperElement.getModifiers().contains(Modifier.ABSTRACT) || !mapperElement.getModifiers().contains(Modifier.PUBLIC)) {
+			this.error(element, "a @ZebraMapper must be a concrete and public class.");
+			return null;
+		}
+		if (mapperElement.getNestingKind() == NestingKind.MEMBER && !mapperElement.getModifiers().contains(Modifier.STATIC)
+				|| mapperElement.getNestingKind() == NestingKind.LOCAL
+				|| mapperElement.getNestingKind() == NestingKind.ANONYMOUS) {
+			this.error(element, "a @ZebraMapper can't be an inner, local or anonymous class.");
+			return null;
+		}
+		if (!this.hasNoArgConstructor(mapperElement)) {
+			this.error(element, "a @ZebraMapper must have a public no-arg constructor.");
+			return null;
+		}
+		final DeclaredType mapperType = this.findMapperSupertype(mapperElement.asType());
+		if (mapperType == null) {
+			this.error(element, "a @ZebraMapper must extend " + MAPPER + ".");
+			return null;
+		}
+		final List<? extends TypeMirror> arguments = mapperType.getTypeArguments();
+		if (arguments.size() != 2 || arguments.get(0).getKind() != TypeKind.DECLARED || arguments.get(1).getKind() != TypeKind.DECLARED) {
+			this.error(element, "the source and destination classes of a @ZebraMapper must be resolved classes, found " + mapperType + ".");
+			return null;
+		}
+		final PackageElement mapperPackage = this.processingEnv.getElementUtils().getPackageOf(mapperElement);
+		return new String[] { mapperElement.getQualifiedName().toString(), this.erasure(arguments.get(0)), this.erasure(arguments.get(1)),
+								mapperPackage.getQualifiedName().toString() };
+	}
+
+	private boolean hasNoArgConstructor(final TypeElement mapperElement) {
+		for (final ExecutableElement constructor : ElementFilter.constructorsIn(mapperElement.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private DeclaredType findMapperSupertype(final TypeMirror type) {
+		for (final TypeMirror supertype : this.processingEnv.getTypeUtils().directSupertypes(type)) {
+			if (supertype.getKind() != TypeKind.DECLARED) {
+				continue;
+			}
+			final TypeElement supertypeElement = (TypeElement) ((DeclaredType) supertype).asElement();
+			if (supertypeElement.getQualifiedName().contentEquals(MAPPER)) {
+				return (DeclaredType) supertype;
+			}
+			if (supertypeElement.getKind() == ElementKind.CLASS) {
+				final DeclaredType found = this.findMapperSupertype(supertype);
+				if (found != null) {
+					return found;
+				}
+			}
+		}
+		return null;
+	}
+
+	private String erasure(final TypeMirror type) {
+		return ((TypeElement) ((DeclaredType) this.processingEnv.getTypeUtils().erasure(type)).asElement()).getQualifiedName().toString();
+	}
+
+	private void writeRegistry(final List<String[]> mappers, final Element[] originatingElements) {
+		String registryName = this.processingEnv.getOptions().get(REGISTRY_OPTION);
+		if (registryName == null) {
+			final String packageName = mappers.get(0)[3];
+			final String simpleName = "ZebraMapperRegistry_" + this.hash(mappers);
+			registryName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+		}
+		// mappers generated by other processors in a later round get their own registry.
+		if (!this.generatedRegistries.isEmpty()) {
+			registryName = registryName + this.generatedRegistries.size();
+		}
+		final int lastDot = registryName.lastIndexOf('.');
+		final String packageName = lastDot < 0 ? "" : registryName.substring(0, lastDot);
+		final String simpleName = registryName.substring(lastDot + 1);
+
+		final StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		source.append("/**\n * Generated by ").append(ZebraMapperAnnotationProcessor.class.getName()).append(", do not edit.\n */\n");
+		source.append("public final class ").append(simpleName).append(" implements ").append(MAPPER_REGISTRY).append(" {\n\n");
+		source.append("\t@Override\n");
+		source.append("\tpublic void registerMappers(final com.agileasoft.zebra.MapperFactory factory) {\n");
+		for (final String[] mapper : mappers) {
+			source.append("\t\tfactory.register(")
+					.append(mapper[1])
+					.append(".class, ")
+					.append(mapper[2])
+					.append(".class, new ")
+					.append(mapper[0])
+					.append("());\n");
+		}
+		source.append("\t}\n}\n");
+
+		try {
+			final Writer writer = this.processingEnv.getFiler().createSourceFile(registryName, originatingElements).openWriter();
+			try {
+				writer.write(source.toString());
+			} finally {
+				writer.close();
+			}
+			this.generatedRegistries.add(registryName);
+		} catch (final IOException exception) {
+			this.processingEnv.getMessager().printMessage(Kind.ERROR, "can't write " + registryName + " : " + exception.getMessage());
+		}
+	}
+
+	/**
+	 * @return a hexadecimal hash of the sorted mapper class names, stable from one build to the next.
+	 */
+	private String hash(final List<String[]> mappers) {
+		int hash = 0;
+		for (final String[] mapper : mappers) {
+			hash = 31 * hash + mapper[0].hashCode();
+		}
+		return Integer.toHexString(hash);
+	}
+
+	private void writeServiceFile() {
+		if (this.generatedRegistries.isEmpty()) {
+			return;
+		}
+		try {
+			final FileObject serviceFile = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + MAPPER_REGISTRY,
+					this.originatingElements.toArray(new Element[this.originatingElements.size()]));
+			final Writer writer = serviceFile.openWriter();
+			try {
+				for (final String registry : this.generatedRegistries) {
+					writer.write(registry);
+					writer.write("\n");
+				}
+			} finally {
+				writer.close();
+			}
+		} catch (final IOException exception) {
+			this.processingEnv.getMessager().printMessage(Kind.ERROR, "can't write the MapperRegistry service file : " + exception.getMessage());
+		}
+	}
+
+	private void error(final Element element, final String message) {
+		this.processingEnv.getMessager().printMessage(Kind.ERROR, message, element);
+	}
+}
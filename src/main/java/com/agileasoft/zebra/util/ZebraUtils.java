@@ -1,5 +1,13 @@
 package com.agileasoft.zebra.util;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.agileasoft.zebra.Mapper;
+
 /**
  * All utils methods of Zebra framework.
  *
@@ -27,4 +35,47 @@ public final class ZebraUtils {
 		return mapKey.toString();
 	}
 
+	/**
+	 * Resolve the source and destination classes of a mapper from its generic superclasses.<br>
+	 * The mapper can extend Mapper directly or through intermediate generic classes, like
+	 * {@code class UserMapper extends AuditedMapper<UserDto, User>} with {@code class AuditedMapper<A, B> extends Mapper<A, B>}.
+	 *
+	 * @param mapperClass
+	 *            a class that extends the abstract Mapper.
+	 * @return an array of two classes : the source class and the destination class.
+	 */
+	public static Class<?>[] getMapperTypes(final Class<?> mapperClass) {
+		final Map<TypeVariable<?>, Type> resolvedVariables = new HashMap<TypeVariable<?>, Type>();
+		Class<?> type = mapperClass;
+		while (type != null && type != Mapper.class) {
+			final Type genericSuperclass = type.getGenericSuperclass();
+			if (genericSuperclass instanceof ParameterizedType) {
+				final Type[] arguments = ((ParameterizedType) genericSuperclass).getActualTypeArguments();
+				final TypeVariable<?>[] variables = type.getSuperclass().getTypeParameters();
+				for (int i = 0; i < variables.length; i++) {
+					final Type argument = arguments[i];
+					resolvedVariables.put(variables[i], resolvedVariables.containsKey(argument) ? resolvedVariables.get(argument) : argument);
+				}
+			}
+			type = type.getSuperclass();
+		}
+		if (type == null) {
+			throw new IllegalArgumentException(mapperClass.getName() + " doesn't extend " + Mapper.class.getName());
+		}
+		final TypeVariable<?>[] mapperVariables = Mapper.class.getTypeParameters();
+		return new Class<?>[] { toClass(resolvedVariables.get(mapperVariables[0]), mapperClass),
+								toClass(resolvedVariables.get(mapperVariables[1]), mapperClass) };
+	}
+
+	private static Class<?> toClass(final Type type, final Class<?> mapperClass) {
+		if (type instanceof Class) {
+			return (Class<?>) type;
+		}
+		if (type instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) type).getRawType();
+		}
+		throw new IllegalArgumentException("can't resolve the source and destination classes of the mapper " + mapperClass.getName()
+				+ ", register it with its classes.");
+	}
+
 }
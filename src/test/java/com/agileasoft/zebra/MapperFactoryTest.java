@@ -7,15 +7,51 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.agileasoft.zebra.metrics.MapperStatisticsSnapshot;
+import com.agileasoft.zebra.metrics.MappingStatistics;
+
 /**
  * @author amgohan
  */
@@ -247,6 +283,182 @@ public class MapperFactoryTest {
 		assertEquals(this.source.attributes3, b.attr3);
 	}
 
+	@Test
+	public void givenMappersInBothDirections_whenMapBToA_thenStraightMapperWins() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).register(new CustomMapperDestinationToSource()).build();
+		final DestinationObject b = new DestinationObject();
+		b.setAttr1("bbbb");
+
+		final SourceObject a = this.mapper.map(b, SourceObject.class);
+		assertEquals("straight:bbbb", a.attribute1);
+	}
+
+	@Test
+	public void givenTwoReverseMappers_whenMapAToB_thenStraightMapperIsUsed() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperDestinationToSource())
+										.register(new CustomMapperOneWay())
+										.register(new CustomMapperBidirectional())
+										.build();
+		final DestinationObject b = new DestinationObject();
+		b.setAttr1("bbbb");
+
+		assertEquals("straight:bbbb", this.mapper.map(b, SourceObject.class).attribute1);
+	}
+
+	@Test
+	public void givenMappingBidirectional_whenBind_success() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).build();
+		final MappingHandle<SourceObject, DestinationObject> straight = this.mapper.bind(SourceObject.class, DestinationObject.class);
+		final MappingHandle<DestinationObject, SourceObject> reverse = this.mapper.bind(DestinationObject.class, SourceObject.class);
+
+		final DestinationObject b = straight.map(this.source);
+		assertEquals(this.source.attribute1, b.getAttr1());
+		assertEquals(this.source.attribute2, reverse.map(b).attribute2);
+		assertNull(straight.map(null));
+		assertNull(straight.mapAll(null));
+		assertEquals(2, straight.mapAll(Arrays.asList(this.source, this.source)).size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void givenNoMapper_whenBind_thenThrowException() {
+
+		this.mapperFactory.build().bind(SourceObject.class, DestinationObject.class);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void givenMappingOneWayTwice_whenBind_thenThrowException() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperOneWay()).register(new CustomMapperOneWay()).build();
+		this.mapper.bind(SourceObject.class, DestinationObject.class);
+	}
+
+	@Test
+	public void givenMappingWrappersWithNestedHandle_whenMapAToB_success() {
+
+		this.mapper = this.mapperFactory.register(new DeepMappingHandleMapper()).register(new CustomMapperOneWay()).build();
+		final WrapperSourceObject wrapperSource = new WrapperSourceObject();
+		wrapperSource.source = this.source;
+		final WrapperDestinationObject wrapperCible = this.mapper.map(wrapperSource, WrapperDestinationObject.class);
+		assertEquals(wrapperSource.source.attribute1, wrapperCible.destination.getAttr1());
+	}
+
+	@Test
+	public void givenMappingBidirectional_whenMapParallel_thenOrderIsKept() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).build();
+		final List<SourceObject> listA = new LinkedList<SourceObject>();
+		for (int i = 0; i < 1000; i++) {
+			final SourceObject a = new SourceObject();
+			a.attribute2 = i;
+			listA.add(a);
+		}
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			final List<DestinationObject> listB = this.mapper.mapParallel(listA, DestinationObject.class, pool, 10);
+			final List<DestinationObject> straightListB = this.mapper.straightMapParallel(listA, CustomMapperBidirectional.class, pool, 10);
+			final List<SourceObject> reverseListA = this.mapper.reverseMapParallel(new ArrayList<DestinationObject>(listB), CustomMapperBidirectional.class, pool, 10);
+			assertEquals(1000, listB.size());
+			assertEquals(1000, straightListB.size());
+			assertEquals(1000, reverseListA.size());
+			for (int i = 0; i < 1000; i++) {
+				assertEquals(Integer.valueOf(i), listB.get(i).getAttr2());
+				assertEquals(Integer.valueOf(i), straightListB.get(i).getAttr2());
+				assertEquals(Integer.valueOf(i), reverseListA.get(i).attribute2);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void givenSmallList_whenMapParallel_thenMapSequentially() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperOneWay()).build();
+		final List<DestinationObject> listB = this.mapper.mapParallel(Arrays.asList(this.source, this.source), DestinationObject.class);
+		assertEquals(2, listB.size());
+		assertTrue(listB instanceof ArrayList);
+		assertNull(this.mapper.mapParallel((List) null, DestinationObject.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void givenZeroThreshold_whenMapParallel_thenThrowException() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperOneWay()).build();
+		this.mapper.mapParallel(Arrays.asList(this.source), DestinationObject.class, ForkJoinPool.commonPool(), 0);
+	}
+
+	@Test
+	public void givenMappingOneWay_whenMapLazy_thenMapOnlyReadElements() {
+
+		final CountingMapper countingMapper = new CountingMapper();
+		this.mapper = this.mapperFactory.register(countingMapper).build();
+		final List<SourceObject> listA = Arrays.asList(this.source, this.source, this.source);
+
+		final List<DestinationObject> lazyList = this.mapper.mapLazy(listA, DestinationObject.class);
+		assertEquals(3, lazyList.size());
+		assertEquals(0, countingMapper.calls);
+		assertEquals(this.source.attribute1, lazyList.get(1).getAttr1());
+		lazyList.get(1);
+		assertEquals(2, countingMapper.calls);
+
+		final List<DestinationObject> memoizedList = this.mapper.mapLazy(listA, DestinationObject.class, true);
+		assertTrue(memoizedList.get(2) == memoizedList.get(2));
+		assertEquals(3, countingMapper.calls);
+		assertNull(this.mapper.mapLazy((List) null, DestinationObject.class));
+	}
+
+	@Test
+	public void givenLinkedList_whenMapLazyMemoized_thenSourceIsNotReadByIndex() {
+
+		final CountingMapper countingMapper = new CountingMapper();
+		this.mapper = this.mapperFactory.register(countingMapper).build();
+		final List<SourceObject> listA = new LinkedList<SourceObject>(Arrays.asList(this.source, this.source, this.source)) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public SourceObject get(final int index) {
+				throw new AssertionError("the source is walked from its first element.");
+			}
+		};
+
+		final List<DestinationObject> memoizedList = this.mapper.mapLazy(listA, DestinationObject.class, true);
+		assertTrue(memoizedList instanceof RandomAccess);
+		int count = 0;
+		for (final DestinationObject b : memoizedList) {
+			assertTrue(b == memoizedList.get(count++));
+		}
+		assertEquals(3, count);
+		assertEquals(3, countingMapper.calls);
+	}
+
+	@Test
+	public void givenMappingOneWay_whenMapIteratorAndStream_success() {
+
+		final CountingMapper countingMapper = new CountingMapper();
+		this.mapper = this.mapperFactory.register(countingMapper).build();
+		final List<SourceObject> listA = new LinkedList<SourceObject>(Arrays.asList(this.source, this.source));
+
+		final Iterator<DestinationObject> iterator = this.mapper.mapIterator(listA.iterator(), DestinationObject.class);
+		assertEquals(this.source.attribute1, iterator.next().getAttr1());
+		assertEquals(1, countingMapper.calls);
+
+		int count = 0;
+		for (final DestinationObject b : this.mapper.mapIterable(listA, DestinationObject.class)) {
+			assertEquals(this.source.attribute1, b.getAttr1());
+			count++;
+		}
+		assertEquals(2, count);
+
+		final Stream<DestinationObject> stream = this.mapper.mapStream(listA.stream(), DestinationObject.class);
+		assertEquals(3, countingMapper.calls);
+		assertEquals(1, stream.limit(1).collect(Collectors.toList()).size());
+		assertEquals(4, countingMapper.calls);
+	}
+
 	@Test
 	public void givenMappingBidirectional_whenStraightMap_success() {
 
@@ -304,6 +516,66 @@ public class MapperFactoryTest {
 		assertEquals(wrapperSource.source.attributes3, wrapperCible.destination.attr3);
 	}
 
+	@Test
+	public void givenMappingRecording_whenDeepMap_thenNestedCallsAreRecorded() throws Exception {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperOneWay()).register(new DeepMappingMapper()).build();
+		final WrapperSourceObject wrapperSource = new WrapperSourceObject();
+		wrapperSource.source = this.source;
+		final Path dump = Files.createTempFile("zebra", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("com.agileasoft.zebra.Mapping");
+			recording.start();
+			this.mapper.map(wrapperSource, WrapperDestinationObject.class);
+			recording.stop();
+			recording.dump(dump);
+		}
+		final Map<String, RecordedEvent> events = new TreeMap<String, RecordedEvent>();
+		for (final RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+			if (Thread.currentThread().getName().equals(event.getThread().getJavaName())) {
+				events.put(event.getClass("mapperClass").getName(), event);
+			}
+		}
+		Files.delete(dump);
+		final RecordedEvent deep = events.get(DeepMappingMapper.class.getName());
+		final RecordedEvent nested = events.get(CustomMapperOneWay.class.getName());
+		assertEquals(2, events.size());
+		assertEquals(0, deep.getInt("depth"));
+		assertEquals(1, nested.getInt("depth"));
+		assertEquals("A_TO_B", deep.getString("direction"));
+		assertEquals(1, nested.getInt("elements"));
+		assertTrue(deep.getDuration().compareTo(nested.getDuration()) >= 0);
+	}
+
+	@Test
+	public void givenMappingRecording_whenMappingLists_thenEachCallGivesOneEvent() throws Exception {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).register(new ApiModelMapper()).transitiveMapping().build();
+		final List<SourceObject> sources = Arrays.asList(this.source, this.source, this.source);
+		final Path dump = Files.createTempFile("zebra", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("com.agileasoft.zebra.Mapping");
+			recording.start();
+			this.mapper.map(sources, DestinationObject.class);
+			this.mapper.straightMap(sources, CustomMapperBidirectional.class);
+			this.mapper.straightMapTo(sources, CustomMapperBidirectional.class, new ArrayList<DestinationObject>());
+			this.mapper.mapParallel(sources, DestinationObject.class, ForkJoinPool.commonPool(), 1);
+			this.mapper.bind(SourceObject.class, ApiModel.class).mapAll(sources);
+			recording.stop();
+			recording.dump(dump);
+		}
+		final Map<String, Integer> eventsByMapper = new TreeMap<String, Integer>();
+		for (final RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+			assertEquals(3, event.getInt("elements"));
+			assertEquals(0, event.getInt("depth"));
+			eventsByMapper.merge(event.getClass("mapperClass").getName() + " " + event.getString("direction"), 1, Integer::sum);
+		}
+		Files.delete(dump);
+		assertEquals(2, eventsByMapper.size());
+		assertEquals(4, eventsByMapper.get(CustomMapperBidirectional.class.getName() + " A_TO_B").intValue());
+		assertEquals(1, eventsByMapper.get(ApiModelMapper.class.getName() + " B_TO_A").intValue());
+	}
+
 	@Test
 	public void givenMappingWrappers_whenStraightMap_success() {
 
@@ -367,82 +639,1634 @@ public class MapperFactoryTest {
 		assertNull(setWrapperCible);
 	}
 
-	class WrapperSourceObject {
-		public SourceObject source;
+	@Test
+	public void givenMappingOneWay_whenMapToCollectionWithoutSizedConstructor_success() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperOneWay()).build();
+		final List<SourceObject> listA = Arrays.asList(this.source, this.source);
+		final LinkedList<DestinationObject> linkedList = this.mapper.map(listA, DestinationObject.class, LinkedList.class);
+		assertEquals(2, linkedList.size());
+		final Set<DestinationObject> set = this.mapper.map(listA, DestinationObject.class, Set.class);
+		assertEquals(2, set.size());
+		final TreeSet<DestinationObject> treeSet = this.mapper.map(new ArrayList<SourceObject>(), DestinationObject.class, TreeSet.class);
+		assertEquals(0, treeSet.size());
 	}
 
-	class WrapperDestinationObject {
-		public DestinationObject destination;
+	@Test
+	public void givenMappingOneWay_whenMapToCollectionFactory_success() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperOneWay()).build();
+		final ArrayDeque<DestinationObject> deque = this.mapper.map(Arrays.asList(this.source, this.source), DestinationObject.class, ArrayDeque::new);
+		assertEquals(2, deque.size());
+		assertEquals(this.source.attribute1, deque.getFirst().getAttr1());
+		assertNull(this.mapper.map((List<SourceObject>) null, DestinationObject.class, ArrayDeque::new));
 	}
 
-	class SourceObject {
-		public String attribute1;
+	@Test(expected = IllegalStateException.class)
+	public void givenAbstractCollection_whenMapToCollection_thenThrowException() {
 
-		public Integer attribute2;
+		this.mapper = this.mapperFactory.register(new CustomMapperOneWay()).build();
+		this.mapper.map(Arrays.asList(this.source), DestinationObject.class, AbstractCollection.class);
+	}
 
-		public Date attributes3;
+	@Test
+	public void givenCyclicGraph_whenMapWithContext_thenCycleIsKept() {
+
+		this.mapper = this.mapperFactory.register(new NodeMapper()).build();
+		final SourceNode first = new SourceNode();
+		final SourceNode second = new SourceNode();
+		first.next = second;
+		second.next = first;
+
+		final DestinationNode destination = this.mapper.mapWithContext(first, DestinationNode.class);
+		assertTrue(destination.next.next == destination);
+		assertTrue(destination.next != destination);
 	}
 
-	class DestinationObject {
-		private String attr1;
+	@Test
+	public void givenSourceMappedToTwoTypes_whenMapWithContext_thenEachTypeIsShared() {
+
+		this.mapper = this.mapperFactory.register(new NodeMapper()).register(new NodeSummaryMapper()).build();
+		final SourceNode first = new SourceNode();
+		final SourceNode second = new SourceNode();
+		first.next = second;
+		second.next = first;
+
+		final NodeSummary summary = this.mapper.mapWithContext(first, NodeSummary.class);
+		assertTrue(summary.next.next == summary);
+		assertTrue(summary.node.next == summary.next.node);
+		assertTrue(summary.node.next.next == summary.node);
+	}
 
-		private Integer attr2;
+	@Test
+	public void givenSharedReferences_whenMapWithContext_thenMappedOnce() {
 
-		private Date attr3;
+		final CountingMapper countingMapper = new CountingMapper();
+		this.mapper = this.mapperFactory.register(countingMapper).build();
+		final List<SourceObject> listA = Arrays.asList(this.source, this.source, new SourceObject());
 
-		public String getAttr1() {
+		final List<DestinationObject> listB = this.mapper.mapWithContext(listA, DestinationObject.class);
+		assertEquals(2, countingMapper.calls);
+		assertTrue(listB.get(0) == listB.get(1));
+		assertTrue(listB.get(0) != listB.get(2));
 
-			return this.attr1;
+		final List<DestinationObject> listWithoutContext = this.mapper.map(listA, DestinationObject.class);
+		assertEquals(5, countingMapper.calls);
+		assertTrue(listWithoutContext.get(0) != listWithoutContext.get(1));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void givenSubclassOfSource_whenMap_thenSuperclassMapperIsUsed() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).build();
+		final SourceObject proxy = new SourceObject() {
+		};
+		proxy.attribute1 = "proxy";
+		assertEquals("proxy", this.mapper.map(proxy, DestinationObject.class).getAttr1());
+		assertEquals("proxy", this.mapper.map(proxy, DestinationObject.class).getAttr1());
+
+		final DestinationObject subDestination = new DestinationObject() {
+		};
+		subDestination.setAttr1("sub");
+		assertEquals("sub", this.mapper.map(subDestination, SourceObject.class).attribute1);
+		final MappingHandle<DestinationObject, SourceObject> handle = this.mapper.bind((Class<DestinationObject>) subDestination.getClass(), SourceObject.class);
+		assertEquals("sub", handle.map(subDestination).attribute1);
+	}
+
+	@Test
+	public void givenInterfaceMapper_whenMapImplementation_success() {
+
+		this.mapper = this.mapperFactory.register(new NamedMapper()).build();
+		assertEquals("named", this.mapper.map(new NamedSource(), DestinationObject.class).getAttr1());
+	}
+
+	@Test
+	public void givenUnknownSubclass_whenMapTwice_thenThrowExceptionTwice() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperOneWay()).build();
+		for (int i = 0; i < 2; i++) {
+			try {
+				this.mapper.map(new WrapperSourceObject() {
+				}, DestinationObject.class);
+				fail("must throw UnsupportedOperationException");
+			} catch (final UnsupportedOperationException e) {
+				assertTrue(e.getMessage().startsWith("No mapper defined for"));
+			}
 		}
+	}
 
-		public void setAttr1(final String attr1) {
+	@Test
+	public void givenInPlaceMapper_whenMapInto_thenDestinationIsReused() {
+
+		this.mapper = this.mapperFactory.register(new InPlaceMapper()).build();
+		final DestinationObject existing = new DestinationObject();
+		assertTrue(existing == this.mapper.mapInto(this.source, existing));
+		assertEquals(this.source.attribute1, existing.getAttr1());
+
+		final SourceObject existingSource = new SourceObject();
+		assertTrue(existingSource == this.mapper.mapInto(existing, existingSource));
+		assertEquals(this.source.attribute2, existingSource.attribute2);
+		assertNull(this.mapper.mapInto(null, existing));
+		assertTrue(existing == this.mapper.bind(SourceObject.class, DestinationObject.class).mapInto(this.source, existing));
+	}
 
-			this.attr1 = attr1;
+	@Test
+	public void givenInPlaceMapper_whenMapIntoList_thenElementsAreReusedByPosition() {
+
+		this.mapper = this.mapperFactory.register(new InPlaceMapper()).build();
+		final DestinationObject first = new DestinationObject();
+		final DestinationObject second = new DestinationObject();
+		final List<DestinationObject> destinations = new ArrayList<DestinationObject>(Arrays.asList(first, second, new DestinationObject()));
+
+		this.mapper.mapInto(Arrays.asList(this.source, this.source), destinations, DestinationObject.class);
+		assertEquals(2, destinations.size());
+		assertTrue(first == destinations.get(0));
+		assertTrue(second == destinations.get(1));
+		assertEquals(this.source.attribute1, second.getAttr1());
+
+		this.mapper.mapInto(Arrays.asList(this.source, this.source, this.source), destinations, DestinationObject.class);
+		assertEquals(3, destinations.size());
+		assertTrue(first == destinations.get(0));
+		assertEquals(this.source.attribute1, destinations.get(2).getAttr1());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void givenMapperWithoutInPlaceMapping_whenMapInto_thenThrowException() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperOneWay()).build();
+		this.mapper.mapInto(this.source, new DestinationObject());
+	}
+
+	class InPlaceMapper extends Mapper<SourceObject, DestinationObject> {
+
+		@Override
+		public DestinationObject mapAToB(final SourceObject a) {
+			return this.mapAToB(a, new DestinationObject());
 		}
 
-		public Integer getAttr2() {
+		@Override
+		public DestinationObject mapAToB(final SourceObject a, final DestinationObject b) {
+			b.setAttr1(a.attribute1);
+			b.setAttr2(a.attribute2);
+			b.setAttr3(a.attributes3);
+			return b;
+		}
 
-			return this.attr2;
+		@Override
+		public SourceObject mapBToA(final DestinationObject b, final SourceObject a) {
+			a.attribute1 = b.getAttr1();
+			a.attribute2 = b.getAttr2();
+			a.attributes3 = b.getAttr3();
+			return a;
 		}
 
-		public void setAttr2(final Integer attr2) {
+	}
 
-			this.attr2 = attr2;
+	@Test
+	public void givenMetrics_whenMapping_thenCallsAreRecordedByMapperAndDirection() {
+
+		final MappingStatistics statistics = new MappingStatistics();
+		this.mapper = this.mapperFactory.metrics(statistics).register(new CustomMapperBidirectional()).build();
+		final DestinationObject b = this.mapper.map(this.source, DestinationObject.class);
+		this.mapper.map(b, SourceObject.class);
+		this.mapper.straightMap(Arrays.asList(this.source, this.source, this.source), CustomMapperBidirectional.class);
+		this.mapper.bind(SourceObject.class, DestinationObject.class).map(this.source);
+
+		final List<MapperStatisticsSnapshot> snapshots = statistics.snapshot();
+		assertEquals(2, snapshots.size());
+		for (final MapperStatisticsSnapshot snapshot : snapshots) {
+			assertEquals(CustomMapperBidirectional.class, snapshot.getMapperClass());
+			if (snapshot.getDirection() == MappingDirection.A_TO_B) {
+				assertEquals(3, snapshot.getInvocations());
+				assertEquals(5, snapshot.getElements());
+			} else {
+				assertEquals(1, snapshot.getInvocations());
+				assertEquals(1, snapshot.getElements());
+			}
 		}
+	}
 
-		public Date getAttr3() {
+	@Test
+	public void givenMetrics_whenMappingBatches_thenEachBatchIsRecordedOnce() {
+
+		final MappingStatistics statistics = new MappingStatistics();
+		this.mapper = this.mapperFactory.metrics(statistics).register(new CustomMapperBidirectional()).build();
+		final Map<String, SourceObject> sourceMap = new TreeMap<String, SourceObject>();
+		sourceMap.put("a", this.source);
+		sourceMap.put("b", null);
+		this.mapper.map(Arrays.asList(this.source, this.source, this.source), DestinationObject.class);
+		this.mapper.mapArray(new SourceObject[] { this.source, this.source }, DestinationObject.class);
+		this.mapper.mapValues(sourceMap, DestinationObject.class);
+		this.mapper.mapTo(Arrays.asList(this.source), DestinationObject.class, new ArrayList<DestinationObject>());
+
+		final MapperStatisticsSnapshot snapshot = statistics.snapshot().get(0);
+		assertEquals(1, statistics.snapshot().size());
+		assertEquals(4, snapshot.getInvocations());
+		assertEquals(7, snapshot.getElements());
+	}
 
-			return this.attr3;
+	@Test
+	public void givenMetricsAndTransitiveMapping_whenMappingBatch_thenEachHopIsRecordedOnce() {
+
+		final MappingStatistics statistics = new MappingStatistics();
+		this.mapper = this.mapperFactory.metrics(statistics)
+										.register(new CustomMapperBidirectional())
+										.register(new ApiModelMapper())
+										.transitiveMapping()
+										.build();
+		this.mapper.map(Arrays.asList(this.source, this.source, this.source), ApiModel.class);
+
+		final List<MapperStatisticsSnapshot> snapshots = statistics.snapshot();
+		assertEquals(2, snapshots.size());
+		for (final MapperStatisticsSnapshot snapshot : snapshots) {
+			assertEquals(1, snapshot.getInvocations());
+			assertEquals(3, snapshot.getElements());
 		}
+	}
 
-		public void setAttr3(final Date attr3) {
+	@Test
+	public void givenSupplierRegistration_whenMappingConcurrently_thenMapperIsCreatedOnceOnFirstUse() throws Exception {
 
-			this.attr3 = attr3;
+		final AtomicInteger creations = new AtomicInteger();
+		this.mapper = this.mapperFactory.register(SourceObject.class, DestinationObject.class, () -> {
+			creations.incrementAndGet();
+			return new CustomMapperBidirectional();
+		}).build();
+		assertEquals(0, creations.get());
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Callable<DestinationObject>> tasks = new ArrayList<Callable<DestinationObject>>();
+			for (int i = 0; i < 16; i++) {
+				tasks.add(() -> this.mapper.map(this.source, DestinationObject.class));
+			}
+			for (final Future<DestinationObject> future : executor.invokeAll(tasks)) {
+				assertEquals(this.source.attribute1, future.get().getAttr1());
+			}
+		} finally {
+			executor.shutdown();
 		}
+		assertEquals(1, creations.get());
+		assertEquals(this.source.attribute1, this.mapper.map(this.mapper.map(this.source, DestinationObject.class), SourceObject.class).attribute1);
+		assertEquals(1, creations.get());
+	}
 
+	@Test
+	public void givenSupplierRegistration_whenStraightMap_thenMapperIsFoundByItsClass() {
+
+		final AtomicInteger creations = new AtomicInteger();
+		final AtomicInteger unrelatedCreations = new AtomicInteger();
+		this.mapper = this.mapperFactory.register(DestinationObject.class, SourceObject.class, CustomMapperDestinationToSource.class, CustomMapperDestinationToSource::new)
+				.register(SourceObject.class, DestinationObject.class, CustomMapperOneWay.class, () -> {
+					creations.incrementAndGet();
+					return new CustomMapperOneWay();
+				})
+				.register(ApiModel.class, DestinationObject.class, ApiModelMapper.class, () -> {
+					unrelatedCreations.incrementAndGet();
+					return new ApiModelMapper();
+				})
+				.register(SourceObject.class, ApiModel.class, () -> {
+					unrelatedCreations.incrementAndGet();
+					return new SourceApiModelMapper();
+				})
+				.build();
+		final DestinationObject b = this.mapper.straightMap(this.source, CustomMapperOneWay.class);
+		assertEquals(this.source.attribute1, b.getAttr1());
+		assertEquals("straight:" + b.getAttr1(), this.mapper.straightMap(b, CustomMapperDestinationToSource.class).attribute1);
+		this.mapper.straightMap(this.source, CustomMapperOneWay.class);
+		assertEquals(1, creations.get());
+		try {
+			this.mapper.straightMap(this.source, CountingMapper.class);
+			fail("must throw IllegalStateException");
+		} catch (final IllegalStateException e) {
+			// not registered.
+		}
+		assertEquals(0, unrelatedCreations.get());
 	}
 
-	class DeepMappingMapper extends Mapper<WrapperSourceObject, WrapperDestinationObject> {
+	@Test
+	public void givenTwoSupplierRegistrations_whenMapping_thenErrorDoesNotCreateTheMappers() {
+
+		final AtomicInteger creations = new AtomicInteger();
+		this.mapper = this.mapperFactory.register(SourceObject.class, DestinationObject.class, CustomMapperOneWay.class, () -> {
+			creations.incrementAndGet();
+			return new CustomMapperOneWay();
+		}).register(SourceObject.class, DestinationObject.class, () -> {
+			creations.incrementAndGet();
+			return new CustomMapperBidirectional();
+		}).build();
+		try {
+			this.mapper.map(this.source, DestinationObject.class);
+			fail("must throw IllegalStateException");
+		} catch (final IllegalStateException e) {
+			assertTrue(e.getMessage().contains(CustomMapperOneWay.class.getCanonicalName()));
+			assertTrue(e.getMessage().contains("a lazy mapper not created yet"));
+		}
+		assertEquals(0, creations.get());
+	}
 
-		@Override
-		public WrapperDestinationObject mapAToB(final WrapperSourceObject source) {
-			final WrapperDestinationObject cible = new WrapperDestinationObject();
-			// the Mapper Parent has a field mapper which can call other registered mappers hear
-			cible.destination = this.mapper.straightMap(source.source, CustomMapperOneWay.class);
-			return cible;
+	@Test(expected = NullPointerException.class)
+	public void givenSupplierReturningNull_whenMapping_fail() {
+
+		this.mapper = this.mapperFactory.register(SourceObject.class, DestinationObject.class, () -> (Mapper<SourceObject, DestinationObject>) null).build();
+		this.mapper.map(this.source, DestinationObject.class);
+	}
+
+	@Test
+	public void givenMappingBidirectional_whenMapArrayMapAndSet_success() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).build();
+		final SourceObject otherSource = new SourceObject();
+		otherSource.attribute1 = "other";
+
+		final DestinationObject[] array = this.mapper.mapArray(new SourceObject[] { this.source, null, otherSource }, DestinationObject.class);
+		assertEquals(3, array.length);
+		assertEquals(this.source.attribute1, array[0].getAttr1());
+		assertNull(array[1]);
+		assertEquals("other", array[2].getAttr1());
+		assertNull(this.mapper.mapArray((SourceObject[]) null, DestinationObject.class));
+
+		final Map<String, SourceObject> sourceMap = new TreeMap<String, SourceObject>();
+		sourceMap.put("b", otherSource);
+		sourceMap.put("a", this.source);
+		final Map<String, DestinationObject> values = this.mapper.mapValues(sourceMap, DestinationObject.class);
+		assertEquals(Arrays.asList("a", "b"), new ArrayList<String>(values.keySet()));
+		assertEquals("other", values.get("b").getAttr1());
+		assertTrue(this.mapper.mapValues(sourceMap, DestinationObject.class, size -> new TreeMap<String, DestinationObject>()) instanceof TreeMap);
+
+		final Map<DestinationObject, SourceObject> entries = this.mapper.mapEntries(Collections.singletonMap(this.source, array[2]), DestinationObject.class, SourceObject.class);
+		assertEquals(this.source.attribute1, entries.keySet().iterator().next().getAttr1());
+		assertEquals("other", entries.values().iterator().next().attribute1);
+
+		final Set<DestinationObject> set = this.mapper.map(new LinkedHashSet<SourceObject>(Arrays.asList(otherSource, this.source)), DestinationObject.class);
+		assertEquals("other", set.iterator().next().getAttr1());
+		assertEquals(2, set.size());
+	}
+
+	@Test
+	public void givenBlockingMapper_whenMapAsync_thenConcurrencyIsBoundedAndOrderKept() throws Exception {
+
+		final BlockingMapper blockingMapper = new BlockingMapper();
+		this.mapper = this.mapperFactory.register(blockingMapper).build();
+		final List<SourceObject> listA = new ArrayList<SourceObject>();
+		for (int i = 0; i < 20; i++) {
+			final SourceObject a = new SourceObject();
+			a.attribute1 = "a" + i;
+			listA.add(a);
 		}
 
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<DestinationObject> listB = this.mapper.mapAsync(listA, DestinationObject.class, executor, 3).get(10, TimeUnit.SECONDS);
+			assertEquals(20, listB.size());
+			for (int i = 0; i < 20; i++) {
+				assertEquals("a" + i, listB.get(i).getAttr1());
+			}
+			assertTrue(blockingMapper.maxRunning.get() <= 3);
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(this.source.attribute1, this.mapper.mapAsync(this.source, DestinationObject.class).get(10, TimeUnit.SECONDS).getAttr1());
+		assertEquals(2, this.mapper.mapAsync(Arrays.asList(this.source, null), DestinationObject.class).get(10, TimeUnit.SECONDS).size());
+		assertNull(this.mapper.mapAsync((List) null, DestinationObject.class).get());
 	}
 
-	class CustomMapperOneWay extends Mapper<SourceObject, DestinationObject> {
+	@Test
+	public void givenNoMapper_whenMapAsync_thenFutureFails() throws Exception {
 
-		@Override
-		public DestinationObject mapAToB(final SourceObject a) {
+		this.mapper = this.mapperFactory.build();
+		try {
+			this.mapper.mapAsync(Arrays.asList(this.source), DestinationObject.class).get(10, TimeUnit.SECONDS);
+			fail("must throw ExecutionException");
+		} catch (final ExecutionException e) {
+			assertTrue(e.getCause() instanceof UnsupportedOperationException);
+		}
+	}
 
-			final DestinationObject b = new DestinationObject();
-			b.setAttr1(a.attribute1);
-			b.setAttr2(a.attribute2);
-			b.setAttr3(a.attributes3);
+	@Test
+	public void givenFlowProcessor_whenSubscriberRequests_thenOnlyRequestedElementsAreMapped() throws Exception {
+
+		final ConcurrentCountingMapper countingMapper = new ConcurrentCountingMapper();
+		this.mapper = this.mapperFactory.register(countingMapper).build();
+		for (final int batchSize : new int[] { 1, 4 }) {
+			countingMapper.calls.set(0);
+			final Flow.Processor<SourceObject, DestinationObject> processor = this.mapper.mapFlow(DestinationObject.class, batchSize);
+			final RecordingSubscriber subscriber = new RecordingSubscriber();
+			processor.subscribe(subscriber);
+			try (SubmissionPublisher<SourceObject> publisher = new SubmissionPublisher<SourceObject>()) {
+				publisher.subscribe(processor);
+				for (int i = 0; i < 10; i++) {
+					final SourceObject a = new SourceObject();
+					a.attribute1 = "a" + i;
+					publisher.submit(a);
+				}
+				subscriber.subscription.request(3);
+				subscriber.awaitReceived(3);
+				Thread.sleep(50);
+				assertEquals(3, subscriber.received.size());
+				assertEquals(3, countingMapper.calls.get());
+				subscriber.subscription.request(Long.MAX_VALUE);
+			}
+			assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+			assertEquals(10, subscriber.received.size());
+			assertEquals(10, countingMapper.calls.get());
+			for (int i = 0; i < 10; i++) {
+				assertEquals("a" + i, subscriber.received.get(i).getAttr1());
+			}
+		}
+	}
+
+	@Test
+	public void givenCancelledOrCompletedFlowProcessor_whenSubscriberRequests_thenNothingIsForwarded() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).build();
+		for (final boolean cancelled : new boolean[] { true, false }) {
+			final Flow.Processor<SourceObject, DestinationObject> processor = this.mapper.mapFlow(DestinationObject.class, 4);
+			final RecordingSubscriber subscriber = new RecordingSubscriber();
+			processor.subscribe(subscriber);
+			final AtomicLong requested = new AtomicLong();
+			processor.onSubscribe(new Flow.Subscription() {
+
+				@Override
+				public void request(final long n) {
+					requested.addAndGet(n);
+				}
+
+				@Override
+				public void cancel() {
+				}
+			});
+			subscriber.subscription.request(2);
+			if (cancelled) {
+				subscriber.subscription.cancel();
+			} else {
+				processor.onComplete();
+			}
+			subscriber.subscription.request(5);
+			subscriber.subscription.request(0);
+			assertEquals(2, requested.get());
+			assertNull(subscriber.error);
+		}
+	}
+
+	@Test
+	public void givenFlowProcessorWithoutMapper_whenElementPublished_thenSubscriberFails() throws Exception {
+
+		this.mapper = this.mapperFactory.build();
+		final Flow.Processor<SourceObject, DestinationObject> processor = this.mapper.mapFlow(DestinationObject.class);
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		processor.subscribe(subscriber);
+		final RecordingSubscriber secondSubscriber = new RecordingSubscriber();
+		processor.subscribe(secondSubscriber);
+		assertTrue(secondSubscriber.error instanceof IllegalStateException);
+		try (SubmissionPublisher<SourceObject> publisher = new SubmissionPublisher<SourceObject>()) {
+			publisher.subscribe(processor);
+			subscriber.subscription.request(1);
+			publisher.submit(this.source);
+			assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+		}
+		assertTrue(subscriber.error instanceof UnsupportedOperationException);
+		assertTrue(subscriber.received.isEmpty());
+	}
+
+	@Test
+	public void givenTransitiveMapping_whenNoMapperForPair_thenRegisteredMappersAreChainedInBothDirections() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).register(new ApiModelMapper()).transitiveMapping().build();
+		final ApiModel api = this.mapper.map(this.source, ApiModel.class);
+		assertEquals(this.source.attribute1, api.label);
+		final SourceObject a = this.mapper.map(api, SourceObject.class);
+		assertEquals(this.source.attribute1, a.attribute1);
+		assertEquals(this.source.attribute1, this.mapper.bind(SourceObject.class, ApiModel.class).map(this.source).label);
+		final List<ApiModel> apis = this.mapper.map(Arrays.asList(this.source, null), ApiModel.class);
+		assertEquals(this.source.attribute1, apis.get(0).label);
+		assertNull(apis.get(1));
+	}
+
+	@Test
+	public void givenTransitiveMapping_whenMapperRegisteredForPair_thenItWinsOverTheChain() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional())
+										.register(new ApiModelMapper())
+										.register(new SourceApiModelMapper())
+										.transitiveMapping()
+										.build();
+		assertEquals("direct", this.mapper.map(this.source, ApiModel.class).label);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void givenNoTransitiveMapping_whenNoMapperForPair_thenThrowException() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).register(new ApiModelMapper()).build();
+		this.mapper.map(this.source, ApiModel.class);
+	}
+
+	@Test
+	public void givenLiveRegistry_whenRegisterAtRuntime_thenMapperIsAddedOrReplaced() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).liveRegistry().build();
+		final Function<Object, ApiModel> listMapping = source -> this.mapper.map(Arrays.asList(source), ApiModel.class).get(0);
+		try {
+			listMapping.apply(this.source);
+			fail("must throw UnsupportedOperationException");
+		} catch (final UnsupportedOperationException e) {
+			// no mapper yet.
+		}
+		this.mapper.register(new SourceApiModelMapper());
+		assertEquals("direct", this.mapper.map(this.source, ApiModel.class).label);
+		assertEquals("direct", listMapping.apply(this.source).label);
+		assertEquals("direct", this.mapper.straightMap(this.source, SourceApiModelMapper.class).label);
+
+		this.mapper.register(SourceObject.class, ApiModel.class, new Mapper<SourceObject, ApiModel>() {
+
+			@Override
+			public ApiModel mapAToB(final SourceObject a) {
+
+				final ApiModel b = new ApiModel();
+				b.label = "replaced";
+				return b;
+			}
+		});
+		assertEquals("replaced", this.mapper.map(this.source, ApiModel.class).label);
+		try {
+			this.mapper.straightMap(this.source, SourceApiModelMapper.class);
+			fail("must throw IllegalStateException");
+		} catch (final IllegalStateException e) {
+			// the replaced mapper is not registered anymore.
+		}
+		assertEquals(this.source.attribute1, this.mapper.map(this.source, DestinationObject.class).getAttr1());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void givenNoLiveRegistry_whenRegisterAtRuntime_thenThrowException() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).build();
+		this.mapper.register(new SourceApiModelMapper());
+	}
+
+	@Test
+	public void givenScopedMapper_whenMappingFromManyThreads_thenAnInstanceIsNeverShared() throws Exception {
+
+		for (final MapperScope scope : new MapperScope[] { MapperScope.THREAD, MapperScope.POOLED }) {
+			final AtomicInteger instances = new AtomicInteger();
+			final AtomicInteger sharedCalls = new AtomicInteger();
+			this.mapper = new MapperFactory().register(SourceObject.class, DestinationObject.class, StatefulMapper.class, () -> {
+				instances.incrementAndGet();
+				return new StatefulMapper(sharedCalls);
+			}, scope).build();
+			assertEquals(0, instances.get());
+			final ExecutorService executor = Executors.newFixedThreadPool(4);
+			try {
+				final List<Future<DestinationObject>> futures = new ArrayList<Future<DestinationObject>>();
+				for (int i = 0; i < 200; i++) {
+					futures.add(executor.submit(() -> this.mapper.map(this.source, DestinationObject.class)));
+				}
+				for (final Future<DestinationObject> future : futures) {
+					assertEquals(this.source.attribute1, future.get(10, TimeUnit.SECONDS).getAttr1());
+				}
+			} finally {
+				executor.shutdown();
+			}
+			assertEquals(0, sharedCalls.get());
+			assertTrue(instances.get() <= 4);
+			assertEquals(this.source.attribute1, this.mapper.straightMap(this.source, StatefulMapper.class).getAttr1());
+		}
+	}
+
+	@Test
+	public void givenScopedMemoizedMapper_whenMapSameSourceTwice_thenEachInstanceKeepsItsCache() {
+
+		final List<CodeMapper> instances = new ArrayList<CodeMapper>();
+		this.mapper = new MapperFactory().register(String.class, DestinationObject.class, CodeMapper.class, () -> {
+			final CodeMapper codeMapper = new CodeMapper();
+			instances.add(codeMapper);
+			return codeMapper;
+		}, MapperScope.POOLED).build();
+		final DestinationObject first = this.mapper.map("EUR", DestinationObject.class);
+		assertTrue(first == this.mapper.map("EUR", DestinationObject.class));
+		assertTrue(first == this.mapper.straightMap("EUR", CodeMapper.class));
+		assertEquals(1, instances.size());
+		assertEquals(1, instances.get(0).calls);
+	}
+
+	@Test
+	public void givenPooledMapper_whenNestedMappingsEnd_thenIdleInstancesAreCapped() {
+
+		final int maxIdle = ScopedMapper.MAX_IDLE;
+		final AtomicInteger instances = new AtomicInteger();
+		this.mapper = new MapperFactory().register(Integer.class, String.class, CountdownMapper.class, () -> {
+			instances.incrementAndGet();
+			return new CountdownMapper();
+		}, MapperScope.POOLED).build();
+		// each nested call borrows its own instance : depth + 1 instances run at the same time.
+		final int depth = maxIdle + 3;
+		this.mapper.map(depth, String.class);
+		assertEquals(depth + 1, instances.get());
+		this.mapper.map(depth, String.class);
+		assertEquals(2 * (depth + 1) - maxIdle, instances.get());
+		assertEquals("210", this.mapper.map(2, String.class));
+	}
+
+	public static class CountdownMapper extends Mapper<Integer, String> {
+
+		@Override
+		public String mapAToB(final Integer a) {
+
+			return a == 0 ? "0" : a + this.mapper.map(a - 1, String.class);
+		}
+	}
+
+	class StatefulMapper extends Mapper<SourceObject, DestinationObject> {
+
+		private final StringBuilder buffer = new StringBuilder();
+
+		private final AtomicInteger running = new AtomicInteger();
+
+		private final AtomicInteger sharedCalls;
+
+		StatefulMapper(final AtomicInteger sharedCalls) {
+			this.sharedCalls = sharedCalls;
+		}
+
+		@Override
+		public DestinationObject mapAToB(final SourceObject a) {
+
+			if (this.running.incrementAndGet() > 1) {
+				this.sharedCalls.incrementAndGet();
+			}
+			try {
+				this.buffer.setLength(0);
+				this.buffer.append(a.attribute1);
+				Thread.yield();
+				final DestinationObject b = new DestinationObject();
+				b.setAttr1(this.buffer.toString());
+				return b;
+			} finally {
+				this.running.decrementAndGet();
+			}
+		}
+
+	}
+
+	@Test
+	public void givenExistingDestination_whenMapTo_thenMappedObjectsAreAppended() {
+
+		this.mapper = this.mapperFactory.register(new CustomMapperBidirectional()).build();
+		final List<SourceObject> listA = Arrays.asList(this.source, null, this.source);
+		final List<Object> scratch = new ArrayList<Object>();
+		scratch.add("first");
+		assertTrue(scratch == this.mapper.mapTo(listA, DestinationObject.class, scratch));
+		this.mapper.straightMapTo(Arrays.asList(this.source), CustomMapperBidirectional.class, scratch);
+		this.mapper.mapTo((List<SourceObject>) null, DestinationObject.class, scratch);
+		assertEquals(5, scratch.size());
+		assertEquals(this.source.attribute1, ((DestinationObject) scratch.get(4)).getAttr1());
+		assertNull(scratch.get(2));
+
+		final DestinationObject[] array = new DestinationObject[5];
+		assertEquals(4, this.mapper.mapTo(listA, DestinationObject.class, array, 1));
+		assertNull(array[0]);
+		assertEquals(this.source.attribute1, array[3].getAttr1());
+		final SourceObject[] reversed = new SourceObject[2];
+		assertEquals(2, this.mapper.reverseMapTo(Arrays.asList(array[1], array[3]), CustomMapperBidirectional.class, reversed, 0));
+		assertEquals(this.source.attribute1, reversed[1].attribute1);
+		assertEquals(1, this.mapper.reverseMapTo(Arrays.asList(array[1]), CustomMapperBidirectional.class, new LinkedList<Object>()).size());
+		try {
+			this.mapper.straightMapTo(Arrays.asList(this.source, this.source, this.source), CustomMapperBidirectional.class, array, 3);
+			fail("must throw IndexOutOfBoundsException");
+		} catch (final IndexOutOfBoundsException e) {
+			assertNull(array[4]);
+		}
+	}
+
+	@Test
+	public void givenIncrementalMapping_whenChildChanged_thenOnlyItIsMappedAgain() {
+
+		final UpdatableLineMapper lineMapper = new UpdatableLineMapper();
+		final OrderMapper orderMapper = new OrderMapper();
+		this.mapper = this.mapperFactory.register(orderMapper).register(lineMapper).build();
+		final Order order = new Order("a", "b", "c");
+		final IncrementalMapping<Order, OrderView> mapping = this.mapper.mapIncremental(order, OrderView.class);
+		final OrderView view = mapping.getDestination();
+		assertEquals(1, orderMapper.calls);
+		assertEquals(3, lineMapper.calls);
+
+		final LineView lineView = view.lines.get(1);
+		order.lines.get(1).label = "B";
+		assertTrue(view == mapping.markChanged(order.lines.get(1)).refresh());
+		assertTrue(lineView == view.lines.get(1));
+		assertEquals("B", lineView.label);
+		assertEquals(1, orderMapper.calls);
+		assertEquals(4, lineMapper.calls);
+	}
+
+	@Test
+	public void givenIncrementalMapping_whenChildCantBeUpdated_thenItsParentIsMappedAgain() {
+
+		final LineMapper lineMapper = new LineMapper();
+		final OrderMapper orderMapper = new OrderMapper();
+		this.mapper = this.mapperFactory.register(orderMapper).register(lineMapper).build();
+		final Order order = new Order("a", "b", "c");
+		final IncrementalMapping<Order, OrderView> mapping = this.mapper.mapIncremental(order, OrderView.class);
+		final OrderView view = mapping.getDestination();
+		final LineView firstLineView = view.lines.get(0);
+
+		order.lines.get(2).label = "C";
+		order.lines.add(new Line("d"));
+		final OrderView refreshed = mapping.refresh(Arrays.asList(order.lines.get(2), order));
+		assertTrue(refreshed != view);
+		assertTrue(firstLineView == refreshed.lines.get(0));
+		assertEquals("C", refreshed.lines.get(2).label);
+		assertEquals("d", refreshed.lines.get(3).label);
+		assertTrue(refreshed.lines.get(3) == mapping.getDestination(order.lines.get(3)));
+		assertEquals(2, orderMapper.calls);
+		assertEquals(5, lineMapper.calls);
+	}
+
+	@Test
+	public void givenIncrementalMapping_whenParentsAndChildrenChanged_thenEachParentIsMappedOnce() {
+
+		final OrderMapper orderMapper = new OrderMapper();
+		this.mapper = this.mapperFactory.register(new ShopMapper()).register(orderMapper).register(new LineMapper()).build();
+		final Shop shop = new Shop();
+		for (int i = 0; i < 30; i++) {
+			shop.orders.add(new Order("line" + i));
+		}
+		final IncrementalMapping<Shop, ShopView> mapping = this.mapper.mapIncremental(shop, ShopView.class);
+		assertEquals(30, orderMapper.calls);
+
+		// every order is marked with its line, in any order the lines must be mapped again before their order.
+		for (final Order order : shop.orders) {
+			order.lines.get(0).label = order.lines.get(0).label.toUpperCase();
+			mapping.markChanged(order).markChanged(order.lines.get(0));
+		}
+		final ShopView view = mapping.refresh();
+		assertEquals(60, orderMapper.calls);
+		assertEquals("LINE29", view.orders.get(29).lines.get(0).label);
+	}
+
+	@Test
+	public void givenIncrementalMapping_whenUpdateInPlaceFails_thenTheExceptionIsThrown() {
+
+		this.mapper = this.mapperFactory.register(new OrderMapper()).register(new UnmappableLineMapper()).build();
+		final Order order = new Order("a");
+		final IncrementalMapping<Order, OrderView> mapping = this.mapper.mapIncremental(order, OrderView.class);
+		final Object lineView = mapping.getDestination(order.lines.get(0));
+
+		order.lines.get(0).label = "A";
+		try {
+			mapping.markChanged(order.lines.get(0)).refresh();
+			fail("must throw UnsupportedOperationException");
+		} catch (final UnsupportedOperationException e) {
+			assertTrue(e.getMessage().startsWith("No mapper defined"));
+			assertTrue(lineView == mapping.getDestination(order.lines.get(0)));
+		}
+	}
+
+	@Test
+	public void givenIncrementalMappingToAnInterface_whenRootChanged_thenItIsMappedAgain() {
+
+		this.mapper = this.mapperFactory.register(new OrderSummaryMapper()).build();
+		final Order order = new Order("a");
+		final IncrementalMapping<Order, OrderSummary> mapping = this.mapper.mapIncremental(order, OrderSummary.class);
+		final OrderSummary summary = mapping.getDestination();
+		assertEquals(1, summary.getLineCount());
+
+		order.lines.add(new Line("b"));
+		final OrderSummary refreshed = mapping.markChanged(order).refresh();
+		assertTrue(refreshed != summary);
+		assertEquals(2, refreshed.getLineCount());
+		assertTrue(refreshed == mapping.getDestination(order, OrderSummary.class));
+	}
+
+	interface OrderSummary {
+
+		int getLineCount();
+	}
+
+	class OrderSummaryView implements OrderSummary {
+
+		int lineCount;
+
+		@Override
+		public int getLineCount() {
+			return this.lineCount;
+		}
+	}
+
+	class OrderSummaryMapper extends Mapper<Order, OrderSummary> {
+
+		@Override
+		public OrderSummary mapAToB(final Order a) {
+
+			final OrderSummaryView b = new OrderSummaryView();
+			b.lineCount = a.lines.size();
+			return b;
+		}
+
+	}
+
+	class Shop {
+
+		final List<Order> orders = new ArrayList<Order>();
+	}
+
+	class ShopView {
+
+		List<OrderView> orders;
+	}
+
+	class ShopMapper extends Mapper<Shop, ShopView> {
+
+		@Override
+		public ShopView mapAToB(final Shop a) {
+
+			final ShopView b = new ShopView();
+			b.orders = this.mapper.map(a.orders, OrderView.class);
+			return b;
+		}
+
+	}
+
+	class Order {
+
+		final List<Line> lines = new ArrayList<Line>();
+
+		Order(final String... labels) {
+			for (final String label : labels) {
+				this.lines.add(new Line(label));
+			}
+		}
+	}
+
+	class Line {
+
+		String label;
+
+		Line(final String label) {
+			this.label = label;
+		}
+	}
+
+	class OrderView {
+
+		List<LineView> lines;
+	}
+
+	class LineView {
+
+		String label;
+	}
+
+	class OrderMapper extends Mapper<Order, OrderView> {
+
+		int calls;
+
+		@Override
+		public OrderView mapAToB(final Order a) {
+
+			this.calls++;
+			final OrderView b = new OrderView();
+			b.lines = this.mapper.map(a.lines, LineView.class);
+			return b;
+		}
+
+	}
+
+	class LineMapper extends Mapper<Line, LineView> {
+
+		int calls;
+
+		@Override
+		public LineView mapAToB(final Line a) {
+
+			this.calls++;
+			final LineView b = new LineView();
+			b.label = a.label;
+			return b;
+		}
+
+	}
+
+	class UpdatableLineMapper extends LineMapper {
+
+		@Override
+		public LineView mapAToB(final Line a, final LineView b) {
+
+			this.calls++;
+			b.label = a.label;
+			return b;
+		}
+
+	}
+
+	class UnmappableLineMapper extends LineMapper {
+
+		@Override
+		public LineView mapAToB(final Line a, final LineView b) {
+
+			// no mapper is registered from Line to OrderView.
+			this.mapper.map(a, OrderView.class);
+			b.label = a.label;
+			return b;
+		}
+
+	}
+
+	class ApiModel {
+
+		String label;
+	}
+
+	class ApiModelMapper extends Mapper<ApiModel, DestinationObject> {
+
+		@Override
+		public DestinationObject mapAToB(final ApiModel a) {
+
+			final DestinationObject b = new DestinationObject();
+			b.setAttr1(a.label);
+			return b;
+		}
+
+		@Override
+		public ApiModel mapBToA(final DestinationObject b) {
+
+			final ApiModel a = new ApiModel();
+			a.label = b.getAttr1();
+			return a;
+		}
+
+	}
+
+	class SourceApiModelMapper extends Mapper<SourceObject, ApiModel> {
+
+		@Override
+		public ApiModel mapAToB(final SourceObject a) {
+
+			final ApiModel b = new ApiModel();
+			b.label = "direct";
+			return b;
+		}
+
+	}
+
+	class ConcurrentCountingMapper extends Mapper<SourceObject, DestinationObject> {
+
+		final AtomicInteger calls = new AtomicInteger();
+
+		@Override
+		public DestinationObject mapAToB(final SourceObject a) {
+
+			this.calls.incrementAndGet();
+			final DestinationObject b = new DestinationObject();
+			b.setAttr1(a.attribute1);
+			return b;
+		}
+
+	}
+
+	class RecordingSubscriber implements Flow.Subscriber<DestinationObject> {
+
+		final List<DestinationObject> received = new CopyOnWriteArrayList<DestinationObject>();
+
+		final CountDownLatch completed = new CountDownLatch(1);
+
+		volatile Flow.Subscription subscription;
+
+		volatile Throwable error;
+
+		@Override
+		public void onSubscribe(final Flow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(final DestinationObject item) {
+			this.received.add(item);
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			this.error = throwable;
+			this.completed.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			this.completed.countDown();
+		}
+
+		void awaitReceived(final int size) throws InterruptedException {
+			final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (this.received.size() < size && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+		}
+
+	}
+
+	class BlockingMapper extends Mapper<SourceObject, DestinationObject> {
+
+		final AtomicInteger running = new AtomicInteger();
+
+		final AtomicInteger maxRunning = new AtomicInteger();
+
+		@Override
+		public DestinationObject mapAToB(final SourceObject a) {
+
+			final int now = this.running.incrementAndGet();
+			this.maxRunning.accumulateAndGet(now, Math::max);
+			try {
+				Thread.sleep(5);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				this.running.decrementAndGet();
+			}
+			final DestinationObject b = new DestinationObject();
+			b.setAttr1(a.attribute1);
+			return b;
+		}
+
+	}
+
+	@Test
+	public void givenMemoizedMapper_whenMappingEqualSources_thenResultIsCachedAndEvicted() {
+
+		final MappingStatistics statistics = new MappingStatistics();
+		final CodeMapper codeMapper = new CodeMapper();
+		this.mapper = this.mapperFactory.metrics(statistics).register(codeMapper).build();
+
+		final DestinationObject first = this.mapper.map("EUR", DestinationObject.class);
+		assertTrue(first == this.mapper.map(new String("EUR"), DestinationObject.class));
+		assertTrue(first == this.mapper.straightMap("EUR", CodeMapper.class));
+		assertEquals(1, codeMapper.calls);
+		this.mapper.map("USD", DestinationObject.class);
+		this.mapper.map("GBP", DestinationObject.class);
+		assertTrue(first != this.mapper.map("EUR", DestinationObject.class));
+		assertEquals(4, codeMapper.calls);
+
+		final MappingCacheStatistics cacheStatistics = this.mapper.getCacheStatistics(CodeMapper.class);
+		assertEquals(CodeMapper.class, cacheStatistics.getMapperClass());
+		assertEquals(2, cacheStatistics.getHits());
+		assertEquals(4, cacheStatistics.getMisses());
+		assertEquals(2, cacheStatistics.getEvictions());
+		assertEquals(2, cacheStatistics.getSize());
+		assertEquals(CodeMapper.class, statistics.snapshot().get(0).getMapperClass());
+	}
+
+	@Test
+	public void givenRegisterMemoizedWithIdentity_whenMappingEqualSources_thenOnlySameInstanceIsCached() {
+
+		final CountingMapper countingMapper = new CountingMapper();
+		this.mapper = this.mapperFactory.registerMemoized(countingMapper, 16, true).build();
+		final DestinationObject first = this.mapper.map(this.source, DestinationObject.class);
+		assertTrue(first == this.mapper.bind(SourceObject.class, DestinationObject.class).map(this.source));
+		this.mapper.map(new SourceObject(), DestinationObject.class);
+		assertEquals(2, countingMapper.calls);
+	}
+
+	@Memoized(maximumSize = 2)
+	class CodeMapper extends Mapper<String, DestinationObject> {
+
+		int calls;
+
+		@Override
+		public DestinationObject mapAToB(final String code) {
+
+			this.calls++;
+			final DestinationObject b = new DestinationObject();
+			b.setAttr1(code);
+			return b;
+		}
+
+	}
+
+	@Test
+	public void givenEnumMappers_whenMappingBothDirections_thenTablesAreUsed() {
+
+		final ColorLabelMapper labelMapper = new ColorLabelMapper();
+		this.mapper = this.mapperFactory.register(labelMapper)
+				.register(Color.class, Shade.class, EnumMapper.byName(Color.class, Shade.class))
+				.build();
+
+		assertEquals(3, labelMapper.calls);
+		final DestinationObject red = this.mapper.map(Color.RED, DestinationObject.class);
+		assertEquals("RED", red.getAttr1());
+		assertTrue(red == this.mapper.map(Color.RED, DestinationObject.class));
+		assertEquals(Color.RED, this.mapper.map(red, Color.class));
+		final DestinationObject copy = new DestinationObject();
+		copy.setAttr1("BLUE");
+		assertEquals(Color.BLUE, this.mapper.map(copy, Color.class));
+		assertEquals(3, labelMapper.calls);
+
+		assertEquals(Shade.GREEN, this.mapper.map(Color.GREEN, Shade.class));
+		assertEquals(Color.BLUE, this.mapper.map(Shade.BLUE, Color.class));
+		try {
+			this.mapper.map(Shade.BLACK, Color.class);
+			fail("must throw IllegalArgumentException");
+		} catch (final IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("BLACK"));
+		}
+	}
+
+	enum Color {
+		RED, GREEN, BLUE
+	}
+
+	enum Shade {
+		BLACK, BLUE, GREEN, RED
+	}
+
+	class ColorLabelMapper extends EnumMapper<Color, DestinationObject> {
+
+		int calls;
+
+		ColorLabelMapper() {
+			super(Color.class);
+		}
+
+		@Override
+		protected DestinationObject mapConstant(final Color constant) {
+			this.calls++;
+			return new LabelObject(constant.name());
+		}
+
+		@Override
+		protected Color unmapped(final DestinationObject source) {
+			return Color.valueOf(source.getAttr1());
+		}
+
+	}
+
+	class LabelObject extends DestinationObject {
+
+		LabelObject(final String label) {
+			this.setAttr1(label);
+		}
+	}
+
+	@Test
+	public void givenPrimitiveMappers_whenMapPrimitiveArrays_success() {
+
+		this.mapper = this.mapperFactory.register(new EpochMapper()).register(new AmountMapper()).build();
+
+		final Date[] dates = this.mapper.mapLongs(new long[] { 0L, 1000L }, Date.class);
+		assertEquals(1000L, dates[1].getTime());
+		assertEquals(1000L, this.mapper.map(1000L, Date.class).getTime());
+
+		final String[] amounts = this.mapper.mapDoubles(new double[] { 1.5 }, String.class);
+		assertEquals("1.5", amounts[0]);
+		assertEquals(2.5, this.mapper.mapToDoubles(Arrays.asList("2.5"), String.class)[0], 0);
+		assertNull(this.mapper.mapInts(null, String.class));
+	}
+
+	@Test
+	public void givenScopedPrimitiveMapper_whenMapInts_thenMapIntIsCalledWithoutBoxing() {
+
+		final List<IntLabelMapper> instances = new CopyOnWriteArrayList<IntLabelMapper>();
+		this.mapper = this.mapperFactory.register(Integer.class, String.class, () -> {
+			final IntLabelMapper instance = new IntLabelMapper();
+			instances.add(instance);
+			return instance;
+		}, MapperScope.POOLED).build();
+
+		assertEquals("2", this.mapper.mapInts(new int[] { 1, 2 }, String.class)[1]);
+		int calls = 0;
+		for (final IntLabelMapper instance : instances) {
+			calls += instance.calls;
+			assertEquals(0, instance.boxedCalls);
+		}
+		assertEquals(2, calls);
+	}
+
+	@Test
+	public void givenMemoizedPrimitiveMapper_whenMapInts_thenValuesGoThroughTheCache() {
+
+		final IntLabelMapper intMapper = new IntLabelMapper();
+		this.mapper = this.mapperFactory.registerMemoized(intMapper, 16, false).build();
+
+		final String[] labels = this.mapper.mapInts(new int[] { 1, 1, 2 }, String.class);
+		assertTrue(labels[0] == labels[1]);
+		assertEquals(2, intMapper.calls);
+		assertEquals(1, this.mapper.getCacheStatistics(IntLabelMapper.class).getHits());
+	}
+
+	class IntLabelMapper extends IntToObjMapper<String> {
+
+		int calls;
+
+		int boxedCalls;
+
+		@Override
+		public String mapInt(final int source) {
+			this.calls++;
+			for (final StackTraceElement element : new Throwable().getStackTrace()) {
+				if ("mapAToB".equals(element.getMethodName())) {
+					this.boxedCalls++;
+					break;
+				}
+			}
+			return Integer.toString(source);
+		}
+
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void givenPrimitiveMapperOneWay_whenMapToPrimitive_fail() {
+
+		this.mapper = this.mapperFactory.register(new EpochMapper()).build();
+		this.mapper.mapToLongs(Arrays.asList(new Date()), Date.class);
+	}
+
+	class EpochMapper extends LongToObjMapper<Date> {
+
+		@Override
+		public Date mapLong(final long source) {
+			return new Date(source);
+		}
+
+	}
+
+	class AmountMapper extends DoubleToObjMapper<String> {
+
+		@Override
+		public String mapDouble(final double source) {
+			return Double.toString(source);
+		}
+
+		@Override
+		public double mapToDouble(final String source) {
+			return Double.parseDouble(source);
+		}
+
+	}
+
+	@Test
+	public void givenAutoMapping_whenNoMapperRegistered_thenSameNamedPropertiesAreCopied() {
+
+		this.mapper = this.mapperFactory.autoMapping().build();
+		final PersonEntity entity = new PersonEntity();
+		entity.setName("zebra");
+		entity.setAge(12);
+		entity.setActive(true);
+		entity.setScore(7);
+
+		final PersonDto dto = this.mapper.map(entity, PersonDto.class);
+		assertEquals("zebra", dto.getName());
+		assertEquals(Integer.valueOf(12), dto.getAge());
+		assertTrue(dto.isActive());
+		assertNull(dto.getScore());
+
+		dto.setAge(null);
+		dto.setName("updated");
+		assertTrue(entity == this.mapper.mapInto(dto, entity));
+		assertEquals("updated", entity.getName());
+		assertEquals(12, entity.getAge());
+		assertEquals("updated", this.mapper.bind(PersonEntity.class, PersonDto.class).map(entity).getName());
+	}
+
+	@Test
+	public void givenAutoMapping_whenListElementsHaveOtherTypes_thenTheListIsNotCopied() {
+
+		this.mapper = this.mapperFactory.autoMapping().build();
+		final PersonEntity entity = new PersonEntity();
+		entity.setName("zebra");
+		entity.setTags(Arrays.asList("a", "b"));
+		entity.setNicknames(Arrays.asList("z"));
+
+		final PersonDto dto = this.mapper.map(entity, PersonDto.class);
+		assertEquals("zebra", dto.getName());
+		assertNull(dto.getTags());
+		assertEquals(Arrays.asList("z"), dto.getNicknames());
+	}
+
+	@Test
+	public void givenAutoMapping_whenMapperRegistered_thenRegisteredMapperWins() {
+
+		this.mapper = this.mapperFactory.autoMapping().register(new CustomMapperDestinationToSource()).build();
+		final DestinationObject b = new DestinationObject();
+		b.setAttr1("attr1");
+		assertEquals("straight:attr1", this.mapper.map(b, SourceObject.class).attribute1);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void givenAutoMapping_whenNoPropertyMatches_fail() {
+
+		this.mapper = this.mapperFactory.autoMapping().build();
+		this.mapper.map(new PersonEntity(), DestinationObject.class);
+	}
+
+	public static class PersonEntity {
+
+		private String name;
+
+		private int age;
+
+		private boolean active;
+
+		private int score;
+
+		private List<String> tags;
+
+		private List<String> nicknames;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(final String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(final int age) {
+			this.age = age;
+		}
+
+		public boolean isActive() {
+			return this.active;
+		}
+
+		public void setActive(final boolean active) {
+			this.active = active;
+		}
+
+		public int getScore() {
+			return this.score;
+		}
+
+		public void setScore(final int score) {
+			this.score = score;
+		}
+
+		public List<String> getTags() {
+			return this.tags;
+		}
+
+		public void setTags(final List<String> tags) {
+			this.tags = tags;
+		}
+
+		public List<String> getNicknames() {
+			return this.nicknames;
+		}
+
+		public void setNicknames(final List<String> nicknames) {
+			this.nicknames = nicknames;
+		}
+	}
+
+	public static class PersonDto {
+
+		private String name;
+
+		private Integer age;
+
+		private boolean active;
+
+		private String score;
+
+		private List<Integer> tags;
+
+		private List<String> nicknames;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(final String name) {
+			this.name = name;
+		}
+
+		public Integer getAge() {
+			return this.age;
+		}
+
+		public void setAge(final Integer age) {
+			this.age = age;
+		}
+
+		public boolean isActive() {
+			return this.active;
+		}
+
+		public void setActive(final boolean active) {
+			this.active = active;
+		}
+
+		public String getScore() {
+			return this.score;
+		}
+
+		public void setScore(final String score) {
+			this.score = score;
+		}
+
+		public List<Integer> getTags() {
+			return this.tags;
+		}
+
+		public void setTags(final List<Integer> tags) {
+			this.tags = tags;
+		}
+
+		public List<String> getNicknames() {
+			return this.nicknames;
+		}
+
+		public void setNicknames(final List<String> nicknames) {
+			this.nicknames = nicknames;
+		}
+	}
+
+	interface Named {
+		String getName();
+	}
+
+	class NamedSource implements Named {
+
+		@Override
+		public String getName() {
+			return "named";
+		}
+	}
+
+	class NamedMapper extends Mapper<Named, DestinationObject> {
+
+		@Override
+		public DestinationObject mapAToB(final Named source) {
+			final DestinationObject destination = new DestinationObject();
+			destination.setAttr1(source.getName());
+			return destination;
+		}
+
+	}
+
+	class SourceNode {
+		public SourceNode next;
+	}
+
+	class DestinationNode {
+		public DestinationNode next;
+	}
+
+	class NodeMapper extends Mapper<SourceNode, DestinationNode> {
+
+		@Override
+		public DestinationNode mapAToB(final SourceNode source) {
+			final DestinationNode destination = new DestinationNode();
+			this.mapper.remember(source, destination);
+			destination.next = this.mapper.map(source.next, DestinationNode.class);
+			return destination;
+		}
+
+	}
+
+	class NodeSummary {
+		public DestinationNode node;
+
+		public NodeSummary next;
+	}
+
+	class NodeSummaryMapper extends Mapper<SourceNode, NodeSummary> {
+
+		@Override
+		public NodeSummary mapAToB(final SourceNode source) {
+			final NodeSummary summary = new NodeSummary();
+			this.mapper.remember(source, summary);
+			summary.node = this.mapper.map(source, DestinationNode.class);
+			summary.next = this.mapper.map(source.next, NodeSummary.class);
+			return summary;
+		}
+
+	}
+
+	class WrapperSourceObject {
+		public SourceObject source;
+	}
+
+	class WrapperDestinationObject {
+		public DestinationObject destination;
+	}
+
+	class SourceObject {
+		public String attribute1;
+
+		public Integer attribute2;
+
+		public Date attributes3;
+	}
+
+	class DestinationObject {
+		private String attr1;
+
+		private Integer attr2;
+
+		private Date attr3;
+
+		public String getAttr1() {
+
+			return this.attr1;
+		}
+
+		public void setAttr1(final String attr1) {
+
+			this.attr1 = attr1;
+		}
+
+		public Integer getAttr2() {
+
+			return this.attr2;
+		}
+
+		public void setAttr2(final Integer attr2) {
+
+			this.attr2 = attr2;
+		}
+
+		public Date getAttr3() {
+
+			return this.attr3;
+		}
+
+		public void setAttr3(final Date attr3) {
+
+			this.attr3 = attr3;
+		}
+
+	}
+
+	class DeepMappingMapper extends Mapper<WrapperSourceObject, WrapperDestinationObject> {
+
+		@Override
+		public WrapperDestinationObject mapAToB(final WrapperSourceObject source) {
+			final WrapperDestinationObject cible = new WrapperDestinationObject();
+			// the Mapper Parent has a field mapper which can call other registered mappers hear
+			cible.destination = this.mapper.straightMap(source.source, CustomMapperOneWay.class);
+			return cible;
+		}
+
+	}
+
+	class DeepMappingHandleMapper extends Mapper<WrapperSourceObject, WrapperDestinationObject> {
+
+		private MappingHandle<SourceObject, DestinationObject> sourceHandle;
+
+		@Override
+		public void setMapper(final MapperProcessor mapper) {
+			super.setMapper(mapper);
+			this.sourceHandle = mapper.bind(SourceObject.class, DestinationObject.class);
+		}
+
+		@Override
+		public WrapperDestinationObject mapAToB(final WrapperSourceObject source) {
+			final WrapperDestinationObject cible = new WrapperDestinationObject();
+			cible.destination = this.sourceHandle.map(source.source);
+			return cible;
+		}
+
+	}
+
+	class CustomMapperOneWay extends Mapper<SourceObject, DestinationObject> {
+
+		@Override
+		public DestinationObject mapAToB(final SourceObject a) {
+
+			final DestinationObject b = new DestinationObject();
+			b.setAttr1(a.attribute1);
+			b.setAttr2(a.attribute2);
+			b.setAttr3(a.attributes3);
+			return b;
+		}
+
+	}
+
+	class CustomMapperDestinationToSource extends Mapper<DestinationObject, SourceObject> {
+
+		@Override
+		public SourceObject mapAToB(final DestinationObject b) {
+
+			final SourceObject a = new SourceObject();
+			a.attribute1 = "straight:" + b.getAttr1();
+			return a;
+		}
+
+	}
+
+	class CountingMapper extends Mapper<SourceObject, DestinationObject> {
+
+		int calls;
+
+		@Override
+		public DestinationObject mapAToB(final SourceObject a) {
+
+			this.calls++;
+			final DestinationObject b = new DestinationObject();
+			b.setAttr1(a.attribute1);
 			return b;
 		}
 
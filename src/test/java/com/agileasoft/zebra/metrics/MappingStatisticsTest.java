@@ -0,0 +1,60 @@
+package com.agileasoft.zebra.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.agileasoft.zebra.MappingDirection;
+
+/**
+ * @author amgohan
+ */
+public class MappingStatisticsTest {
+
+	private final MappingStatistics statistics = new MappingStatistics();
+
+	@Test
+	public void givenDurations_whenBucket_thenPowerOfTwoIndex() {
+		assertEquals(0, MappingStatistics.bucket(0));
+		assertEquals(1, MappingStatistics.bucket(1));
+		assertEquals(2, MappingStatistics.bucket(2));
+		assertEquals(2, MappingStatistics.bucket(3));
+		assertEquals(11, MappingStatistics.bucket(1024));
+		assertEquals(63, MappingStatistics.bucket(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void givenRecords_whenSnapshot_thenCountersByMapperAndDirection() {
+		this.statistics.record(String.class, MappingDirection.A_TO_B, 1, 100);
+		this.statistics.record(String.class, MappingDirection.A_TO_B, 10, 3000);
+		this.statistics.record(String.class, MappingDirection.B_TO_A, 1, 5);
+
+		final List<MapperStatisticsSnapshot> snapshots = this.statistics.snapshot();
+		assertEquals(2, snapshots.size());
+		for (final MapperStatisticsSnapshot snapshot : snapshots) {
+			assertEquals(String.class, snapshot.getMapperClass());
+			if (snapshot.getDirection() == MappingDirection.A_TO_B) {
+				assertEquals(2, snapshot.getInvocations());
+				assertEquals(11, snapshot.getElements());
+				assertEquals(3100, snapshot.getTotalNanos());
+				assertEquals(127, snapshot.getLatencyPercentileNanos(50));
+				assertEquals(4095, snapshot.getLatencyPercentileNanos(100));
+			} else {
+				assertEquals(1, snapshot.getInvocations());
+				assertEquals(7, snapshot.getLatencyPercentileNanos(99));
+			}
+		}
+
+		this.statistics.reset();
+		assertTrue(this.statistics.snapshot().isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void givenSnapshot_whenPercentileOutOfRange_thenThrowException() {
+		this.statistics.record(String.class, MappingDirection.A_TO_B, 1, 100);
+		this.statistics.snapshot().get(0).getLatencyPercentileNanos(101);
+	}
+}
@@ -0,0 +1,20 @@
+package com.agileasoft.zebra.registry;
+
+import com.agileasoft.zebra.ZebraMapper;
+
+/**
+ * @author amgohan
+ */
+@ZebraMapper
+public class IntegerToStringMapper extends ToStringMapper<Integer> {
+
+	@Override
+	protected String prefix() {
+		return "integer:";
+	}
+
+	@Override
+	public Integer mapBToA(final String source) {
+		return Integer.valueOf(source.substring(this.prefix().length()));
+	}
+}
@@ -0,0 +1,40 @@
+package com.agileasoft.zebra.registry;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ServiceLoader;
+
+import org.junit.Test;
+
+import com.agileasoft.zebra.MapperFactory;
+import com.agileasoft.zebra.MapperProcessor;
+import com.agileasoft.zebra.MapperRegistry;
+import com.agileasoft.zebra.util.ZebraUtils;
+
+/**
+ * @author amgohan
+ */
+public class MapperRegistryTest {
+
+	@Test
+	public void givenAnnotatedMapper_whenRegisterDiscovered_thenGeneratedRegistryIsLoaded() {
+		final MapperProcessor mapper = new MapperFactory().registerDiscovered().build();
+		assertEquals("integer:42", mapper.map(42, String.class));
+		assertEquals(Integer.valueOf(42), mapper.map("integer:42", Integer.class));
+	}
+
+	@Test
+	public void givenIntermediateGenericMapper_whenGetMapperTypes_thenTypesAreResolved() {
+		assertArrayEquals(new Class<?>[] { Integer.class, String.class }, ZebraUtils.getMapperTypes(IntegerToStringMapper.class));
+		final MapperProcessor mapper = new MapperFactory().register(new IntegerToStringMapper()).build();
+		assertEquals("integer:7", mapper.map(7, String.class));
+	}
+
+	@Test
+	public void givenAnnotatedMapper_whenCompiled_thenRegistryNameIsUniqueToItsMappers() {
+		final MapperRegistry registry = ServiceLoader.load(MapperRegistry.class).iterator().next();
+		assertTrue(registry.getClass().getName().startsWith("com.agileasoft.zebra.registry.ZebraMapperRegistry_"));
+	}
+}
@@ -0,0 +1,18 @@
+package com.agileasoft.zebra.registry;
+
+import com.agileasoft.zebra.Mapper;
+
+/**
+ * An intermediate generic mapper : the source class is only known by the subclasses.
+ *
+ * @author amgohan
+ */
+public abstract class ToStringMapper<A> extends Mapper<A, String> {
+
+	@Override
+	public String mapAToB(final A source) {
+		return this.prefix() + source;
+	}
+
+	protected abstract String prefix();
+}
@@ -0,0 +1,46 @@
+package com.agileasoft.zebra.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run all zebra benchmarks with the gc profiler (allocation rate) once per thread count : 1, 2, 4 ... up to the number of available
+ * processors.<br>
+ * Any standard JMH command line option is accepted and applied to every run, for example {@code java -jar benchmarks.jar Deep -p size=10}.
+ * Passing {@code -t} runs only the given thread count.
+ *
+ * @author amgohan
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		final int maxThreads = commandLineOptions.getThreads().hasValue() ? 1 : Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+			final OptionsBuilder options = new OptionsBuilder();
+			options.parent(commandLineOptions);
+			if (commandLineOptions.getIncludes().isEmpty()) {
+				options.include("com.agileasoft.zebra.benchmarks");
+			}
+			options.addProfiler(GCProfiler.class);
+			if (!commandLineOptions.getThreads().hasValue()) {
+				options.threads(threads);
+			}
+			new Runner(options.build()).run();
+		}
+	}
+
+	private static int nextThreadCount(final int threads, final int maxThreads) {
+		if (threads == maxThreads) {
+			return maxThreads + 1;
+		}
+		return Math.min(threads * 2, maxThreads);
+	}
+}
@@ -0,0 +1,82 @@
+package com.agileasoft.zebra.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.agileasoft.zebra.MapperFactory;
+import com.agileasoft.zebra.MapperProcessor;
+import com.agileasoft.zebra.benchmarks.mapper.DirectUserMapper;
+import com.agileasoft.zebra.benchmarks.mapper.RoleDtoEntityMapper;
+import com.agileasoft.zebra.benchmarks.mapper.UserDtoEntityMapper;
+import com.agileasoft.zebra.benchmarks.model.RoleDto;
+import com.agileasoft.zebra.benchmarks.model.User;
+import com.agileasoft.zebra.benchmarks.model.UserDto;
+
+/**
+ * Deep mapping of the README example : UserDto to User with its nested list of roles.<br>
+ * One operation maps {@code size} users.
+ *
+ * @author amgohan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeepMappingBenchmark {
+
+	@Param({ "1", "10", "10000", "1000000" })
+	public int size;
+
+	private DirectUserMapper directMapper;
+
+	private MapperProcessor processor;
+
+	private List<UserDto> users;
+
+	@Setup
+	public void setup() {
+		this.directMapper = new DirectUserMapper();
+		this.processor = new MapperFactory().register(new UserDtoEntityMapper()).register(new RoleDtoEntityMapper()).build();
+		this.users = new ArrayList<UserDto>(this.size);
+		for (int i = 0; i < this.size; i++) {
+			final UserDto user = new UserDto();
+			user.setFirstName("first" + i);
+			user.setLastName("last" + i);
+			user.setUsername("user" + i + "@zebra.com");
+			user.setPassword("password");
+			user.setBirthdate("1980-01-01");
+			user.setRoles(Arrays.asList(RoleDto.ADMIN, RoleDto.USER, RoleDto.MANAGER));
+			this.users.add(user);
+		}
+	}
+
+	@Benchmark
+	public List<User> baselineDirect() {
+		final List<User> returnList = new ArrayList<User>(this.users.size());
+		for (final UserDto user : this.users) {
+			returnList.add(this.directMapper.map(user));
+		}
+		return returnList;
+	}
+
+	@Benchmark
+	public List<User> mapList() {
+		return this.processor.map(this.users, User.class);
+	}
+}
@@ -0,0 +1,142 @@
+package com.agileasoft.zebra.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.agileasoft.zebra.MapperFactory;
+import com.agileasoft.zebra.MapperProcessor;
+import com.agileasoft.zebra.MappingHandle;
+import com.agileasoft.zebra.benchmarks.mapper.RoleDtoEntityMapper;
+import com.agileasoft.zebra.benchmarks.model.Role;
+import com.agileasoft.zebra.benchmarks.model.RoleDto;
+
+/**
+ * Flat mapping through every MapperProcessor entry point, compared with direct calls to the same mapper instance.<br>
+ * One operation maps the whole input of {@code size} elements.
+ *
+ * @author amgohan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("rawtypes")
+public class MapperProcessorBenchmark {
+
+	@Param({ "1", "10", "10000", "1000000" })
+	public int size;
+
+	private RoleDtoEntityMapper directMapper;
+
+	private MapperProcessor processor;
+
+	private MappingHandle<RoleDto, Role> handle;
+
+	private List<RoleDto> dtos;
+
+	private List<Role> entities;
+
+	@Setup
+	public void setup() {
+		this.directMapper = new RoleDtoEntityMapper();
+		this.processor = new MapperFactory().register(new RoleDtoEntityMapper()).build();
+		this.handle = this.processor.bind(RoleDto.class, Role.class);
+		final RoleDto[] values = RoleDto.values();
+		this.dtos = new ArrayList<RoleDto>(this.size);
+		for (int i = 0; i < this.size; i++) {
+			this.dtos.add(values[i % values.length]);
+		}
+		this.entities = this.processor.map(this.dtos, Role.class);
+	}
+
+	@Benchmark
+	public void baselineDirectCall(final Blackhole blackhole) {
+		for (final RoleDto dto : this.dtos) {
+			blackhole.consume(this.directMapper.mapAToB(dto));
+		}
+	}
+
+	@Benchmark
+	public List<Role> baselineDirectList() {
+		final List<Role> returnList = new ArrayList<Role>(this.dtos.size());
+		for (final RoleDto dto : this.dtos) {
+			returnList.add(this.directMapper.mapAToB(dto));
+		}
+		return returnList;
+	}
+
+	@Benchmark
+	public List<RoleDto> baselineDirectReverseList() {
+		final List<RoleDto> returnList = new ArrayList<RoleDto>(this.entities.size());
+		for (final Role entity : this.entities) {
+			returnList.add(this.directMapper.mapBToA(entity));
+		}
+		return returnList;
+	}
+
+	@Benchmark
+	public void mapObject(final Blackhole blackhole) {
+		for (final RoleDto dto : this.dtos) {
+			blackhole.consume(this.processor.map(dto, Role.class));
+		}
+	}
+
+	@Benchmark
+	public void mapObjectReverse(final Blackhole blackhole) {
+		for (final Role entity : this.entities) {
+			blackhole.consume(this.processor.map(entity, RoleDto.class));
+		}
+	}
+
+	@Benchmark
+	public List<Role> mapList() {
+		return this.processor.map(this.dtos, Role.class);
+	}
+
+	@Benchmark
+	public List<Role> mapListParallel() {
+		return this.processor.mapParallel(this.dtos, Role.class);
+	}
+
+	@Benchmark
+	public Collection<Role> mapCollection() {
+		return this.processor.map(this.dtos, Role.class, ArrayList.class);
+	}
+
+	@Benchmark
+	public Collection<Role> mapCollectionFactory() {
+		return this.processor.map(this.dtos, Role.class, ArrayList::new);
+	}
+
+	@Benchmark
+	public List<Role> straightMapList() {
+		return this.processor.straightMap(this.dtos, RoleDtoEntityMapper.class);
+	}
+
+	@Benchmark
+	public List<RoleDto> reverseMapList() {
+		return this.processor.reverseMap(this.entities, RoleDtoEntityMapper.class);
+	}
+
+	@Benchmark
+	public List<Role> handleMapAll() {
+		return this.handle.mapAll(this.dtos);
+	}
+}
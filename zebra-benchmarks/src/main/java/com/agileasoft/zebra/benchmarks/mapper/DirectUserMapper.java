@@ -0,0 +1,33 @@
+package com.agileasoft.zebra.benchmarks.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.agileasoft.zebra.benchmarks.model.Role;
+import com.agileasoft.zebra.benchmarks.model.RoleDto;
+import com.agileasoft.zebra.benchmarks.model.User;
+import com.agileasoft.zebra.benchmarks.model.UserDto;
+
+/**
+ * The hand-written baseline of UserDtoEntityMapper : same mapping code, nested roles mapped by a direct call without zebra.
+ *
+ * @author amgohan
+ */
+public class DirectUserMapper {
+
+	private final RoleDtoEntityMapper roleMapper = new RoleDtoEntityMapper();
+
+	public User map(final UserDto dto) {
+		final User entity = new User();
+		entity.setFullName(dto.getFirstName() + ", " + dto.getLastName());
+		entity.setEmail(dto.getUsername());
+		entity.setBirthDate(UserDtoEntityMapper.parseDate(dto.getBirthdate()));
+		entity.setPassword(dto.getPassword());
+		final List<Role> roles = new ArrayList<Role>(dto.getRoles().size());
+		for (final RoleDto role : dto.getRoles()) {
+			roles.add(this.roleMapper.mapAToB(role));
+		}
+		entity.setRoles(roles);
+		return entity;
+	}
+}
@@ -0,0 +1,24 @@
+package com.agileasoft.zebra.benchmarks.mapper;
+
+import com.agileasoft.zebra.Mapper;
+import com.agileasoft.zebra.benchmarks.model.Role;
+import com.agileasoft.zebra.benchmarks.model.RoleDto;
+
+/**
+ * @author amgohan
+ */
+public class RoleDtoEntityMapper extends Mapper<RoleDto, Role> {
+
+	@Override
+	public Role mapAToB(final RoleDto dto) {
+		final Role entity = new Role();
+		entity.setCode(dto.name());
+		entity.setLabel(dto.getDescription());
+		return entity;
+	}
+
+	@Override
+	public RoleDto mapBToA(final Role entity) {
+		return RoleDto.valueOf(entity.getCode());
+	}
+}
@@ -0,0 +1,59 @@
+package com.agileasoft.zebra.benchmarks.mapper;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import com.agileasoft.zebra.Mapper;
+import com.agileasoft.zebra.benchmarks.model.Role;
+import com.agileasoft.zebra.benchmarks.model.RoleDto;
+import com.agileasoft.zebra.benchmarks.model.User;
+import com.agileasoft.zebra.benchmarks.model.UserDto;
+
+/**
+ * The deep mapping example of the README.
+ *
+ * @author amgohan
+ */
+public class UserDtoEntityMapper extends Mapper<UserDto, User> {
+
+	private final static String DATE_FORMAT_PATTERN = "yyyy-MM-dd";
+
+	@Override
+	public User mapAToB(final UserDto dto) {
+		final User entity = new User();
+		entity.setFullName(dto.getFirstName() + ", " + dto.getLastName());
+		entity.setEmail(dto.getUsername());
+		entity.setBirthDate(parseDate(dto.getBirthdate()));
+		entity.setPassword(dto.getPassword());
+		entity.setRoles(this.mapper.map(dto.getRoles(), Role.class));
+		return entity;
+	}
+
+	@Override
+	public UserDto mapBToA(final User entity) {
+		final UserDto dto = new UserDto();
+		dto.setBirthdate(formatDate(entity.getBirthDate()));
+		final String[] fullNameSplit = entity.getFullName().split(", ");
+		dto.setFirstName(fullNameSplit[0]);
+		dto.setLastName(fullNameSplit[1]);
+		dto.setUsername(entity.getEmail());
+		dto.setPassword(entity.getPassword());
+		dto.setRoles(this.mapper.map(entity.getRoles(), RoleDto.class));
+		return dto;
+	}
+
+	static Date parseDate(final String date) {
+		final SimpleDateFormat sdf = new SimpleDateFormat(DATE_FORMAT_PATTERN);
+		try {
+			return sdf.parse(date);
+		} catch (final ParseException exception) {
+			return null;
+		}
+	}
+
+	static String formatDate(final Date date) {
+		final SimpleDateFormat sdf = new SimpleDateFormat(DATE_FORMAT_PATTERN);
+		return sdf.format(date);
+	}
+}
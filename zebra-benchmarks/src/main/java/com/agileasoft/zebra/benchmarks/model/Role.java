@@ -0,0 +1,27 @@
+package com.agileasoft.zebra.benchmarks.model;
+
+/**
+ * @author amgohan
+ */
+public class Role {
+
+	private String code;
+
+	private String label;
+
+	public String getCode() {
+		return this.code;
+	}
+
+	public void setCode(final String code) {
+		this.code = code;
+	}
+
+	public String getLabel() {
+		return this.label;
+	}
+
+	public void setLabel(final String label) {
+		this.label = label;
+	}
+}
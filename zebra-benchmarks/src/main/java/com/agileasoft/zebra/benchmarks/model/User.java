@@ -0,0 +1,60 @@
+package com.agileasoft.zebra.benchmarks.model;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author amgohan
+ */
+public class User {
+
+	private String fullName;
+
+	private String email;
+
+	private String password;
+
+	private Date birthDate;
+
+	private List<Role> roles;
+
+	public String getFullName() {
+		return this.fullName;
+	}
+
+	public void setFullName(final String fullName) {
+		this.fullName = fullName;
+	}
+
+	public String getEmail() {
+		return this.email;
+	}
+
+	public void setEmail(final String email) {
+		this.email = email;
+	}
+
+	public String getPassword() {
+		return this.password;
+	}
+
+	public void setPassword(final String password) {
+		this.password = password;
+	}
+
+	public Date getBirthDate() {
+		return this.birthDate;
+	}
+
+	public void setBirthDate(final Date birthDate) {
+		this.birthDate = birthDate;
+	}
+
+	public List<Role> getRoles() {
+		return this.roles;
+	}
+
+	public void setRoles(final List<Role> roles) {
+		this.roles = roles;
+	}
+}
@@ -0,0 +1,69 @@
+package com.agileasoft.zebra.benchmarks.model;
+
+import java.util.List;
+
+/**
+ * @author amgohan
+ */
+public class UserDto {
+
+	private String firstName;
+
+	private String lastName;
+
+	private String username;
+
+	private String password;
+
+	private String birthdate;
+
+	private List<RoleDto> roles;
+
+	public String getFirstName() {
+		return this.firstName;
+	}
+
+	public void setFirstName(final String firstName) {
+		this.firstName = firstName;
+	}
+
+	public String getLastName() {
+		return this.lastName;
+	}
+
+	public void setLastName(final String lastName) {
+		this.lastName = lastName;
+	}
+
+	public String getUsername() {
+		return this.username;
+	}
+
+	public void setUsername(final String username) {
+		this.username = username;
+	}
+
+	public String getPassword() {
+		return this.password;
+	}
+
+	public void setPassword(final String password) {
+		this.password = password;
+	}
+
+	public String getBirthdate() {
+		return this.birthdate;
+	}
+
+	public void setBirthdate(final String birthdate) {
+		this.birthdate = birthdate;
+	}
+
+	public List<RoleDto> getRoles() {
+		return this.roles;
+	}
+
+	public void setRoles(final List<RoleDto> roles) {
+		this.roles = roles;
+	}
+}